@@ -100,6 +100,9 @@ public class MediaRadioPlugin extends JavaPlugin {
                         var store = event.getPlayerRef().getReference().getStore();
                         playbackManager.stopForPlayer(event.getPlayerRef().getUuid(), store);
                     }
+                    if (mediaManager != null) {
+                        mediaManager.releaseRequester(event.getPlayerRef().getUuid().toString());
+                    }
                 });
         this.getEventRegistry().registerGlobal(
                 com.hypixel.hytale.server.core.event.events.entity.LivingEntityInventoryChangeEvent.class,
@@ -180,6 +183,12 @@ public class MediaRadioPlugin extends JavaPlugin {
         if (playbackManager != null) {
             playbackManager.shutdown();
         }
+        if (mediaManager != null) {
+            mediaManager.shutdown();
+        }
+        if (mediaLibrary != null) {
+            mediaLibrary.flush();
+        }
     }
 
     public static MediaRadioPlugin getInstance() {
@@ -60,5 +60,6 @@ public class SetupRadioCommand extends AbstractPlayerCommand {
         if (ytDlpAvailable && ffmpegAvailable) {
             playerRef.sendMessage(Message.raw("MediaRadio setup looks good: embedded yt-dlp + ffmpeg detected."));
         }
+        playerRef.sendMessage(Message.raw(manager.getRuntimeStatusSummary()));
     }
 }
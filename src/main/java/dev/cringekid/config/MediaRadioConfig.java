@@ -12,12 +12,76 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class MediaRadioConfig {
+    // Shortest chunk, head chunks included. Playback overlaps up to 120 ms of each chunk with
+    // the next to absorb scheduling lag; at this length that still leaves over half of it
+    public static final int MIN_CHUNK_DURATION_MS = 250;
+
+    // Values below MIN_CHUNK_DURATION_MS are raised to it
     private int chunkDurationMs = 750;
+    // Shorter chunks at the start of a track so playback starts sooner; 0 disables them
+    private int headChunkCount = 4;
+    private int headChunkDurationMs = 250;
+    // Long tracks get longer chunks to stay under this many; 0 always uses chunkDurationMs
+    private int maxChunksPerTrack = 1200;
+    // Upper bound for those longer chunks, as a seek lands on the start of a chunk
+    private int maxChunkDurationMs = 5000;
     private List<String> ytDlpArgs = new ArrayList<>();
     private List<String> ytDlpMetadataArgs = new ArrayList<>();
+    private boolean streamingIngest = true;
+    // Max ffmpeg workers splitting one stored track; 0 uses half the available cores
+    private int splitCoreBudget = 0;
+    // How long one background SoundEvent batch may keep the asset store busy
+    private double assetLoadTickBudgetMs = 10.0;
+    // Chunks kept registered ahead of and behind each playhead; 0 ahead registers whole tracks
+    private int chunkWindowAhead = 240;
+    private int chunkWindowBehind = 40;
+    // Registered chunk, model and thumbnail bytes before idle tracks are evicted; 0 disables
+    private int runtimeAssetBudgetMb = 512;
+    // Most recently served chunk and thumbnail files kept memory-mapped; 0 reads them on every serve
+    private int mappedAssetBudgetMb = 64;
+    // Size of the songs directory before unsaved songs are evicted; 0 keeps everything
+    private int songStorageQuotaMb = 10240;
+    // LRU evicts the least recently played song first, LFU the least often played
+    private String songEvictionPolicy = "LRU";
+    // Cached song metadata older than this is refreshed in the background on next request
+    private int metadataCacheTtlHours = 168;
+    // Playlist entries in flight at the same time during an import; downloads also share the network pool
+    private int playlistImportConcurrency = 3;
+    // Leading playlist entries that are also split and registered, so they start instantly
+    private int playlistPrefetchEntries = 2;
+    // Entries beyond this are left out of an import
+    private int maxPlaylistEntries = 500;
+    // Threads for yt-dlp metadata, downloads, playlist listings and thumbnails
+    private int networkThreads = 4;
+    // Tracks prepared for playback (downloaded and split by ffmpeg) at the same time
+    private int transcodeThreads = 2;
+    // Threads loading chunks into the asset store and unloading them
+    private int assetRegistrationThreads = 1;
+    // Downloads and splits one player may have running at once; the rest wait their turn
+    private int maxIngestJobsPerPlayer = 2;
+    // Wall-clock limits for yt-dlp and ffmpeg; a process still running past its limit is killed. 0 disables
+    private int metadataTimeoutSeconds = 120;
+    private int downloadTimeoutMinutes = 30;
+    private int splitTimeoutMinutes = 30;
 
     public int getChunkDurationMs() {
-        return chunkDurationMs;
+        return Math.max(MIN_CHUNK_DURATION_MS, chunkDurationMs);
+    }
+
+    public int getHeadChunkCount() {
+        return headChunkCount;
+    }
+
+    public int getHeadChunkDurationMs() {
+        return headChunkDurationMs > 0 ? Math.max(MIN_CHUNK_DURATION_MS, headChunkDurationMs) : 0;
+    }
+
+    public int getMaxChunksPerTrack() {
+        return maxChunksPerTrack;
+    }
+
+    public int getMaxChunkDurationMs() {
+        return maxChunkDurationMs;
     }
 
     public List<String> getYtDlpArgs() {
@@ -28,6 +92,89 @@ public class MediaRadioConfig {
         return ytDlpMetadataArgs != null ? ytDlpMetadataArgs : List.of();
     }
 
+    public boolean isStreamingIngest() {
+        return streamingIngest;
+    }
+
+    public int getSplitCoreBudget() {
+        if (splitCoreBudget > 0) {
+            return splitCoreBudget;
+        }
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    public double getAssetLoadTickBudgetMs() {
+        return assetLoadTickBudgetMs;
+    }
+
+    public int getChunkWindowAhead() {
+        return chunkWindowAhead;
+    }
+
+    public int getChunkWindowBehind() {
+        return chunkWindowBehind;
+    }
+
+    public int getRuntimeAssetBudgetMb() {
+        return runtimeAssetBudgetMb;
+    }
+
+    public int getMappedAssetBudgetMb() {
+        return mappedAssetBudgetMb;
+    }
+
+    public int getSongStorageQuotaMb() {
+        return songStorageQuotaMb;
+    }
+
+    public String getSongEvictionPolicy() {
+        return songEvictionPolicy != null ? songEvictionPolicy : "LRU";
+    }
+
+    public int getMetadataCacheTtlHours() {
+        return metadataCacheTtlHours;
+    }
+
+    public int getPlaylistImportConcurrency() {
+        return playlistImportConcurrency;
+    }
+
+    public int getPlaylistPrefetchEntries() {
+        return playlistPrefetchEntries;
+    }
+
+    public int getMaxPlaylistEntries() {
+        return maxPlaylistEntries;
+    }
+
+    public int getNetworkThreads() {
+        return networkThreads;
+    }
+
+    public int getTranscodeThreads() {
+        return transcodeThreads;
+    }
+
+    public int getAssetRegistrationThreads() {
+        return assetRegistrationThreads;
+    }
+
+    public int getMaxIngestJobsPerPlayer() {
+        return maxIngestJobsPerPlayer;
+    }
+
+    public int getMetadataTimeoutSeconds() {
+        return metadataTimeoutSeconds;
+    }
+
+    public int getDownloadTimeoutMinutes() {
+        return downloadTimeoutMinutes;
+    }
+
+    public int getSplitTimeoutMinutes() {
+        return splitTimeoutMinutes;
+    }
+
     public static MediaRadioConfig load(Path baseDir) {
         Path configPath = baseDir.resolve("media_radio_config.json").toAbsolutePath();
         Gson gson = new GsonBuilder().setPrettyPrinting().create();
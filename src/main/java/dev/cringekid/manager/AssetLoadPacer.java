@@ -0,0 +1,88 @@
+package dev.cringekid.manager;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Sizes background chunk registration from how long SoundEvent loads actually take.
+ * Every load reports its chunk count and duration; the smoothed cost per chunk decides
+ * how many chunks fit in one batch without going over the tick budget, and the pause
+ * after a batch keeps the share of time spent loading assets below the share of a
+ * world tick that budget represents. When the asset store slows down because several
+ * tracks are loading at once, batches shrink and pauses grow on their own.
+ */
+final class AssetLoadPacer {
+    private static final double WORLD_TICK_MS = 1000.0 / 30.0;
+    private static final int MIN_BATCH = 8;
+    private static final int MAX_BATCH = 600;
+    private static final long MIN_DELAY_MS = 50L;
+    private static final long MAX_DELAY_MS = 2_000L;
+    // Weight of the newest measurement in the moving average
+    private static final double SMOOTHING = 0.3;
+
+    private final DoubleSupplier tickBudgetMs;
+    private final int initialBatch;
+    private final long initialDelayMs;
+
+    private double msPerChunk = -1;
+    private long loadedChunks = 0;
+    private long loadNanos = 0;
+    private volatile int batchSize;
+    private volatile long delayMs;
+
+    /**
+     * @param tickBudgetMs   how long one batch may keep the asset store busy, read on
+     *                       every measurement so config changes apply live
+     * @param initialBatch   batch size until the first measurement
+     * @param initialDelayMs pause between batches until the first measurement
+     */
+    AssetLoadPacer(DoubleSupplier tickBudgetMs, int initialBatch, long initialDelayMs) {
+        this.tickBudgetMs = tickBudgetMs;
+        this.initialBatch = initialBatch;
+        this.initialDelayMs = initialDelayMs;
+        this.batchSize = initialBatch;
+        this.delayMs = initialDelayMs;
+    }
+
+    synchronized void record(int chunks, long elapsedNanos) {
+        if (chunks <= 0) {
+            return;
+        }
+        loadedChunks += chunks;
+        loadNanos += elapsedNanos;
+        double sample = elapsedNanos / 1_000_000.0 / chunks;
+        msPerChunk = msPerChunk < 0 ? sample : msPerChunk + SMOOTHING * (sample - msPerChunk);
+
+        double budget = Math.max(1.0, tickBudgetMs.getAsDouble());
+        int batch = (int) Math.floor(budget / Math.max(msPerChunk, 0.001));
+        batchSize = Math.max(MIN_BATCH, Math.min(MAX_BATCH, batch));
+        // Loading for budget ms leaves WORLD_TICK_MS - budget ms for everything else
+        double batchMs = batchSize * msPerChunk;
+        double idleFactor = Math.max(0.0, WORLD_TICK_MS / budget - 1.0);
+        delayMs = Math.max(MIN_DELAY_MS, Math.min(MAX_DELAY_MS, Math.round(batchMs * idleFactor)));
+    }
+
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    long getDelayMs() {
+        return delayMs;
+    }
+
+    /**
+     * Chunks per second the background queue registers at the current pacing.
+     */
+    synchronized double getChunksPerSecond() {
+        double batchMs = msPerChunk < 0 ? 0 : batchSize * msPerChunk;
+        return batchSize * 1000.0 / Math.max(1.0, batchMs + delayMs);
+    }
+
+    synchronized String describe() {
+        if (msPerChunk < 0) {
+            return String.format("asset pacing: %d chunks every %d ms (not measured yet)", initialBatch,
+                    initialDelayMs);
+        }
+        return String.format("asset pacing: %d chunks every %d ms, %.2f ms/chunk, ~%.0f chunks/s (%d loaded in %.1fs)",
+                batchSize, delayMs, msPerChunk, getChunksPerSecond(), loadedChunks, loadNanos / 1e9);
+    }
+}
@@ -0,0 +1,236 @@
+package dev.cringekid.manager;
+
+import com.google.gson.Gson;
+import dev.cringekid.MediaRadioPlugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Persistent store of split playback chunks. Chunks outlive sessions and restarts so
+ * replaying a song only re-registers files instead of re-running loudnorm and the
+ * split. Each track has a {@link ChunkManifest} next to its chunks; all manifests are
+ * loaded into memory at startup and every lookup is answered from there. A manifest
+ * split with another chunk layout or normalization version is stale and the track
+ * has to be split again.
+ */
+class ChunkCache {
+    private static final String MANIFEST_SUFFIX = ".manifest.json";
+    private static final String LEGACY_INDEX_FILE = "cache_index.json";
+    private static final String CHUNK_MARKER = "_Chunk_";
+    private static final String CHUNK_EXTENSION = ".ogg";
+
+    private final MediaRadioPlugin plugin;
+    private final Path cacheDir;
+    private final Gson gson = new Gson();
+    private final Map<String, ChunkManifest> manifests = new ConcurrentHashMap<>();
+
+    ChunkCache(MediaRadioPlugin plugin, Path cacheDir) {
+        this.plugin = plugin;
+        this.cacheDir = cacheDir;
+    }
+
+    Path getCacheDir() {
+        return cacheDir;
+    }
+
+    Path chunkPath(String trackId, int index) {
+        return cacheDir.resolve(chunkFileName(trackId, index));
+    }
+
+    static String chunkFileName(String trackId, int index) {
+        return String.format("%s_Chunk_%03d" + CHUNK_EXTENSION, trackId, index);
+    }
+
+    void load() {
+        try {
+            // Replaced by per-track manifests; its chunks are re-split on next play
+            Files.deleteIfExists(cacheDir.resolve(LEGACY_INDEX_FILE));
+        } catch (IOException ignored) {
+        }
+        try (java.util.stream.Stream<Path> stream = Files.list(cacheDir)) {
+            for (Path path : (Iterable<Path>) stream::iterator) {
+                if (!path.getFileName().toString().endsWith(MANIFEST_SUFFIX)) {
+                    continue;
+                }
+                try (Reader reader = Files.newBufferedReader(path)) {
+                    ChunkManifest manifest = gson.fromJson(reader, ChunkManifest.class);
+                    if (manifest != null && manifest.trackId != null && manifest.getChunkCount() > 0) {
+                        manifest.lastUsedAt = manifest.createdAt;
+                        manifests.put(manifest.trackId, manifest);
+                    }
+                } catch (Exception e) {
+                    plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to read chunk manifest %s", path);
+                }
+            }
+            plugin.getLogger().at(Level.INFO).log("Loaded %d cached tracks from %s", manifests.size(), cacheDir);
+        } catch (IOException e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to load chunk cache");
+        }
+    }
+
+    /**
+     * Drops manifests whose first or last chunk is gone and deletes chunk files that no
+     * manifest owns, such as leftovers from an ingest or re-chunk that never completed.
+     */
+    void prune() {
+        for (ChunkManifest manifest : List.copyOf(manifests.values())) {
+            List<ChunkManifest.Chunk> chunks = manifest.chunks;
+            if (!Files.exists(cacheDir.resolve(chunks.get(0).file))
+                    || !Files.exists(cacheDir.resolve(chunks.get(chunks.size() - 1).file))) {
+                remove(manifest.trackId);
+            }
+        }
+        int deleted = 0;
+        try (java.util.stream.Stream<Path> stream = Files.list(cacheDir)) {
+            for (Path path : (Iterable<Path>) stream::iterator) {
+                String name = path.getFileName().toString();
+                int marker = name.lastIndexOf(CHUNK_MARKER);
+                if (marker <= 0
+                        || (manifests.containsKey(name.substring(0, marker)) && name.endsWith(CHUNK_EXTENSION))) {
+                    continue;
+                }
+                Files.deleteIfExists(path);
+                deleted++;
+            }
+        } catch (IOException e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to prune chunk cache");
+        }
+        if (deleted > 0) {
+            plugin.getLogger().at(Level.INFO).log("Removed %d orphaned chunk files from cache", deleted);
+        }
+    }
+
+    /**
+     * Returns the cached chunk count for a track, or 0 when nothing usable is cached
+     * for the given chunk layout and normalization version.
+     */
+    int lookup(String trackId, ChunkLayout layout, int normalizationVersion) {
+        ChunkManifest manifest = manifests.get(trackId);
+        if (manifest == null || !manifest.matches(layout, normalizationVersion)) {
+            return 0;
+        }
+        manifest.lastUsedAt = System.currentTimeMillis();
+        return manifest.getChunkCount();
+    }
+
+    /**
+     * True when chunks are cached for the track but under a different key.
+     */
+    boolean isStale(String trackId, ChunkLayout layout, int normalizationVersion) {
+        ChunkManifest manifest = manifests.get(trackId);
+        return manifest != null && !manifest.matches(layout, normalizationVersion);
+    }
+
+    ChunkManifest getManifest(String trackId) {
+        return manifests.get(trackId);
+    }
+
+    int getChunkCount(String trackId) {
+        ChunkManifest manifest = manifests.get(trackId);
+        return manifest != null ? manifest.getChunkCount() : 0;
+    }
+
+    /**
+     * Builds the manifest for a completed ingest from ffmpeg's segment list, hashing
+     * every chunk, and stores it together with the chunk duration decision.
+     */
+    ChunkManifest put(String trackId, ChunkDurationPolicy.Decision decision, int normalizationVersion,
+            String encoder, List<ChunkSegment> segments) throws IOException {
+        ChunkManifest manifest = new ChunkManifest(trackId, decision, normalizationVersion, encoder);
+        for (ChunkSegment segment : segments) {
+            String file = chunkFileName(trackId, segment.index());
+            Path path = cacheDir.resolve(file);
+            long startMs = Math.round(segment.startSeconds() * 1000.0);
+            long endMs = Math.round(segment.endSeconds() * 1000.0);
+            manifest.chunks.add(new ChunkManifest.Chunk(file, startMs, Math.max(0, endMs - startMs),
+                    Files.size(path), sha256(path)));
+        }
+        try (Writer writer = Files.newBufferedWriter(manifestPath(trackId))) {
+            gson.toJson(manifest, writer);
+        }
+        manifests.put(trackId, manifest);
+        return manifest;
+    }
+
+    /**
+     * Swaps a track's chunks for a new set staged next to them under the final file
+     * names plus {@code stagingSuffix}, and records the new manifest.
+     */
+    ChunkManifest replace(String trackId, ChunkDurationPolicy.Decision decision, int normalizationVersion,
+            String encoder, List<ChunkSegment> segments, String stagingSuffix) throws IOException {
+        remove(trackId);
+        for (ChunkSegment segment : segments) {
+            Path target = chunkPath(trackId, segment.index());
+            Files.move(target.resolveSibling(target.getFileName() + stagingSuffix), target,
+                    java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        }
+        return put(trackId, decision, normalizationVersion, encoder, segments);
+    }
+
+    /**
+     * Forgets a track but leaves its chunk files, e.g. while they may still be served.
+     * The next split of the track overwrites them; otherwise they are pruned at startup.
+     */
+    void forget(String trackId) {
+        manifests.remove(trackId);
+        deleteQuietly(manifestPath(trackId));
+    }
+
+    /**
+     * Forgets a track and deletes exactly the chunk files its manifest lists.
+     */
+    ChunkManifest remove(String trackId) {
+        ChunkManifest manifest = manifests.remove(trackId);
+        deleteQuietly(manifestPath(trackId));
+        if (manifest != null) {
+            for (ChunkManifest.Chunk chunk : manifest.chunks) {
+                deleteQuietly(cacheDir.resolve(chunk.file));
+            }
+        }
+        return manifest;
+    }
+
+    int size() {
+        return manifests.size();
+    }
+
+    private Path manifestPath(String trackId) {
+        return cacheDir.resolve(trackId + MANIFEST_SUFFIX);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to delete file %s", path);
+        }
+    }
+
+    static String sha256(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
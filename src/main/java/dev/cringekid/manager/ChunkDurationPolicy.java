@@ -0,0 +1,65 @@
+package dev.cringekid.manager;
+
+import dev.cringekid.config.MediaRadioConfig;
+
+/**
+ * Picks the chunk duration for one track. Every chunk costs a file, a SoundEvent and an
+ * animation in the track model, so long tracks get longer chunks until they fit the
+ * per-track chunk budget. Chunks never get shorter than configured, which the config
+ * already keeps at or above {@link MediaRadioConfig#MIN_CHUNK_DURATION_MS}, and never
+ * longer than the seek granularity, since a seek starts the chunk it lands in from the
+ * beginning.
+ */
+final class ChunkDurationPolicy {
+    // Longer chunks are rounded up to this, so tracks of similar length share a duration
+    private static final int ROUNDING_MS = 250;
+
+    /**
+     * The chosen layout and why, as recorded in the track's manifest.
+     */
+    record Decision(ChunkLayout layout, String reason) {
+    }
+
+    private final int maxChunksPerTrack;
+    private final int maxChunkDurationMs;
+
+    /**
+     * @param maxChunksPerTrack  chunk budget per track; 0 or less keeps the configured duration
+     * @param maxChunkDurationMs seek granularity limit
+     */
+    ChunkDurationPolicy(int maxChunksPerTrack, int maxChunkDurationMs) {
+        this.maxChunksPerTrack = maxChunksPerTrack;
+        this.maxChunkDurationMs = maxChunkDurationMs;
+    }
+
+    Decision choose(ChunkLayout requested, long durationMs) {
+        int configured = requested.chunkDurationMs();
+        ChunkLayout base = withChunkDuration(requested, configured);
+        if (durationMs <= 0 || maxChunksPerTrack <= 0) {
+            return new Decision(base, "configured " + configured + " ms");
+        }
+        int chunks = base.chunkCount(durationMs);
+        if (chunks <= maxChunksPerTrack) {
+            return new Decision(base, String.format("configured %d ms, %d chunks within budget of %d",
+                    configured, chunks, maxChunksPerTrack));
+        }
+
+        long headMs = base.startMs(base.headChunkCount());
+        int bodyChunks = Math.max(1, maxChunksPerTrack - base.headChunkCount());
+        long needed = (long) Math.ceil((durationMs - headMs) / (double) bodyChunks);
+        long rounded = (needed + ROUNDING_MS - 1) / ROUNDING_MS * ROUNDING_MS;
+        int cap = Math.max(configured, maxChunkDurationMs);
+        int chosen = (int) Math.max(configured, Math.min(cap, rounded));
+        ChunkLayout layout = withChunkDuration(requested, chosen);
+        String reason = chosen < needed
+                ? String.format("%d ms, capped by seek granularity; %d chunks exceed budget of %d",
+                        chosen, layout.chunkCount(durationMs), maxChunksPerTrack)
+                : String.format("%d ms instead of %d ms to stay within budget of %d chunks (%d)",
+                        chosen, configured, maxChunksPerTrack, layout.chunkCount(durationMs));
+        return new Decision(layout, reason);
+    }
+
+    private static ChunkLayout withChunkDuration(ChunkLayout layout, int chunkDurationMs) {
+        return new ChunkLayout(layout.headChunkCount(), layout.headChunkDurationMs(), chunkDurationMs);
+    }
+}
@@ -0,0 +1,66 @@
+package dev.cringekid.manager;
+
+/**
+ * How a track is cut into chunks: {@code headChunkCount} short chunks of
+ * {@code headChunkDurationMs} so playback can start after little audio, then chunks of
+ * {@code chunkDurationMs} for the rest of the track. Without a head every chunk has the
+ * same length. This is the plan handed to the splitter; the boundaries ffmpeg actually
+ * produced are in the {@link ChunkTimeline}.
+ */
+record ChunkLayout(int headChunkCount, int headChunkDurationMs, int chunkDurationMs) {
+
+    ChunkLayout {
+        chunkDurationMs = Math.max(100, chunkDurationMs);
+        if (headChunkCount <= 0 || headChunkDurationMs <= 0 || headChunkDurationMs == chunkDurationMs) {
+            // One canonical form, so layouts compare equal however they were written
+            headChunkCount = 0;
+            headChunkDurationMs = 0;
+        } else {
+            headChunkDurationMs = Math.max(100, headChunkDurationMs);
+        }
+    }
+
+    static ChunkLayout uniform(int chunkDurationMs) {
+        return new ChunkLayout(0, 0, chunkDurationMs);
+    }
+
+    boolean hasHead() {
+        return headChunkCount > 0;
+    }
+
+    long startMs(int chunk) {
+        int head = Math.min(chunk, headChunkCount);
+        return (long) head * headChunkDurationMs + (long) Math.max(0, chunk - headChunkCount) * chunkDurationMs;
+    }
+
+    long durationMs(int chunk) {
+        return chunk < headChunkCount ? headChunkDurationMs : chunkDurationMs;
+    }
+
+    int chunkCount(long totalMs) {
+        if (totalMs <= 0) {
+            return 0;
+        }
+        long headMs = (long) headChunkCount * headChunkDurationMs;
+        if (totalMs <= headMs) {
+            return (int) Math.ceil(totalMs / (double) headChunkDurationMs);
+        }
+        return headChunkCount + (int) Math.ceil((totalMs - headMs) / (double) chunkDurationMs);
+    }
+
+    /**
+     * This layout if ffmpeg can be given all of its split points for a track of
+     * {@code totalMs}, otherwise the uniform layout. A single segmenter cutting a head
+     * needs an explicit list of split points for the whole track, so the head is dropped
+     * when the duration is unknown or the list would get too long for a command line.
+     */
+    ChunkLayout fitting(long totalMs, int maxSplitPoints) {
+        if (!hasHead()) {
+            return this;
+        }
+        if (totalMs <= 0 || chunkCount(totalMs) > maxSplitPoints) {
+            return uniform(chunkDurationMs);
+        }
+        return this;
+    }
+}
@@ -0,0 +1,78 @@
+package dev.cringekid.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes the chunks split for one track: how they were encoded and, per chunk,
+ * its exact duration, size and content hash. Written once when an ingest completes
+ * and kept in memory afterwards, so chunk lookups never touch the filesystem.
+ */
+class ChunkManifest {
+    String trackId;
+    int chunkDurationMs;
+    // Short chunks at the start of the track; 0 for manifests from before head chunks
+    int headChunkCount;
+    int headChunkDurationMs;
+    // Why this chunk duration was picked for the track, see ChunkDurationPolicy
+    String chunkPolicy;
+    int normalizationVersion;
+    String encoder;
+    long createdAt;
+    transient long lastUsedAt;
+    List<Chunk> chunks = new ArrayList<>();
+
+    ChunkManifest() {
+    }
+
+    ChunkManifest(String trackId, ChunkDurationPolicy.Decision decision, int normalizationVersion, String encoder) {
+        ChunkLayout layout = decision.layout();
+        this.trackId = trackId;
+        this.chunkDurationMs = layout.chunkDurationMs();
+        this.headChunkCount = layout.headChunkCount();
+        this.headChunkDurationMs = layout.headChunkDurationMs();
+        this.chunkPolicy = decision.reason();
+        this.normalizationVersion = normalizationVersion;
+        this.encoder = encoder;
+        this.createdAt = System.currentTimeMillis();
+        this.lastUsedAt = createdAt;
+    }
+
+    int getChunkCount() {
+        return chunks != null ? chunks.size() : 0;
+    }
+
+    long getTotalBytes() {
+        long total = 0;
+        for (Chunk chunk : chunks) {
+            total += chunk.bytes;
+        }
+        return total;
+    }
+
+    ChunkLayout getLayout() {
+        return new ChunkLayout(headChunkCount, headChunkDurationMs, chunkDurationMs);
+    }
+
+    boolean matches(ChunkLayout layout, int normalizationVersion) {
+        return getLayout().equals(layout)
+                && this.normalizationVersion == normalizationVersion
+                && getChunkCount() > 0;
+    }
+
+    static class Chunk {
+        String file;
+        long startMs;
+        long durationMs;
+        long bytes;
+        String sha256;
+
+        Chunk(String file, long startMs, long durationMs, long bytes, String sha256) {
+            this.file = file;
+            this.startMs = startMs;
+            this.durationMs = durationMs;
+            this.bytes = bytes;
+            this.sha256 = sha256;
+        }
+    }
+}
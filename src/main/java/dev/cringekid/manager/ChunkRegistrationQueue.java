@@ -0,0 +1,336 @@
+package dev.cringekid.manager;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a sliding window of each track's chunks registered. Chunks that exist on disk but
+ * are not loaded yet are registered a batch at a time, picked from a priority queue built
+ * from where sessions are right now: the chunks just ahead of each playhead come first,
+ * then the rest of the window. Chunks that fall behind every playhead of their track are
+ * released again and go back to waiting, so a long track only ever holds a window's
+ * worth of assets. Looped tracks also keep the window at the start of the track, where
+ * playback wraps to. A seek only has to call {@link #prioritize()} for the next batch to
+ * start at the new position. While nothing waiting is inside a window the queue only
+ * keeps checking for tracks that are playing, whose windows move; a track that starts
+ * playing or seeks wakes it through {@link #enqueue} or {@link #prioritize()}.
+ */
+final class ChunkRegistrationQueue {
+    // Ahead of a playhead the score is the distance to it; everything else sorts after
+    private static final long BEHIND_PLAYHEAD_SCORE = 1L << 32;
+    private static final long IDLE_TRACK_SCORE = 1L << 40;
+    // How often a playing track's window is checked while nothing in it is waiting
+    private static final long IDLE_TICK_MS = 1_000L;
+
+    interface Registrar {
+        void registerRange(String trackId, int startInclusive, int endExclusive, float volumeDb);
+
+        void releaseRange(String trackId, int startInclusive, int endExclusive);
+    }
+
+    /**
+     * Chunks kept registered around a playhead; {@code ahead <= 0} keeps whole tracks.
+     */
+    record Window(int ahead, int behind) {
+        static final Window UNBOUNDED = new Window(0, 0);
+
+        boolean bounded() {
+            return ahead > 0;
+        }
+    }
+
+    private record Candidate(String trackId, int chunk, long score) {
+    }
+
+    private static final class Pending {
+        private final BitSet chunks = new BitSet();
+        private volatile float volumeDb;
+
+        private Pending(float volumeDb) {
+            this.volumeDb = volumeDb;
+        }
+    }
+
+    private final Registrar registrar;
+    private final Supplier<Map<String, List<Integer>>> playheads;
+    private final Supplier<Set<String>> loopingTracks;
+    private final Supplier<Window> window;
+    private final AssetLoadPacer pacer;
+    private final ScheduledExecutorService executor;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    // Chunks currently registered per track, with the volume to re-queue them at
+    private final Map<String, Pending> registered = new ConcurrentHashMap<>();
+    private final AtomicBoolean tickScheduled = new AtomicBoolean(false);
+    // One tick at a time, however many threads the executor has; a tick asked for while
+    // one runs makes that one run again
+    private final AtomicBoolean ticking = new AtomicBoolean(false);
+    private final AtomicBoolean tickRequested = new AtomicBoolean(false);
+
+    ChunkRegistrationQueue(Registrar registrar, Supplier<Map<String, List<Integer>>> playheads,
+            Supplier<Set<String>> loopingTracks, Supplier<Window> window, AssetLoadPacer pacer,
+            ScheduledExecutorService executor) {
+        this.registrar = registrar;
+        this.playheads = playheads;
+        this.loopingTracks = loopingTracks;
+        this.window = window;
+        this.pacer = pacer;
+        this.executor = executor;
+    }
+
+    /**
+     * Registers chunks {@code [startInclusive, endExclusive)} right away, e.g. the first
+     * chunks a session is about to play, and tracks them for release like queued ones.
+     */
+    void registerNow(String trackId, int startInclusive, int endExclusive, float volumeDb) {
+        if (endExclusive <= startInclusive) {
+            return;
+        }
+        registrar.registerRange(trackId, startInclusive, endExclusive, volumeDb);
+        markRegistered(trackId, startInclusive, endExclusive, volumeDb);
+    }
+
+    /**
+     * Queues chunks {@code [startInclusive, endExclusive)} of a track. The first batch
+     * runs right away if nothing is scheduled yet.
+     */
+    void enqueue(String trackId, int startInclusive, int endExclusive, float volumeDb) {
+        if (endExclusive <= startInclusive) {
+            return;
+        }
+        addPending(trackId, startInclusive, endExclusive, volumeDb);
+        scheduleTick(0);
+    }
+
+    /**
+     * Runs the next batch now instead of after the batch delay, e.g. after a seek.
+     */
+    void prioritize() {
+        if (!pending.isEmpty()) {
+            executor.execute(this::runTick);
+        }
+    }
+
+    /**
+     * Forgets a track, queued and registered chunks alike. Releasing what is registered
+     * is up to the caller.
+     */
+    void cancel(String trackId) {
+        pending.remove(trackId);
+        registered.remove(trackId);
+    }
+
+    int getPendingCount() {
+        return count(pending);
+    }
+
+    int getRegisteredCount() {
+        return count(registered);
+    }
+
+    private static int count(Map<String, Pending> tracks) {
+        int count = 0;
+        for (Pending track : tracks.values()) {
+            synchronized (track.chunks) {
+                count += track.chunks.cardinality();
+            }
+        }
+        return count;
+    }
+
+    private void markRegistered(String trackId, int startInclusive, int endExclusive, float volumeDb) {
+        Pending track = registered.computeIfAbsent(trackId, key -> new Pending(volumeDb));
+        synchronized (track.chunks) {
+            track.volumeDb = volumeDb;
+            track.chunks.set(startInclusive, endExclusive);
+        }
+    }
+
+    private void scheduleTick(long delayMs) {
+        if (!tickScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        executor.schedule(() -> {
+            tickScheduled.set(false);
+            runTick();
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void runTick() {
+        tickRequested.set(true);
+        while (tickRequested.get() && ticking.compareAndSet(false, true)) {
+            try {
+                tickRequested.set(false);
+                tick();
+            } finally {
+                ticking.set(false);
+            }
+        }
+    }
+
+    private void tick() {
+        Map<String, List<Integer>> heads = playheads.get();
+        Set<String> looping = loopingTracks.get();
+        Window limits = window.get();
+        releaseBehind(heads, looping, limits);
+        Map<String, Pending> batch = takeBatch(heads, looping, limits);
+        for (Map.Entry<String, Pending> entry : batch.entrySet()) {
+            float volumeDb = entry.getValue().volumeDb;
+            BitSet chunks = entry.getValue().chunks;
+            // Register each contiguous run in one call so SoundEvents load together
+            for (int start = chunks.nextSetBit(0); start >= 0; start = chunks.nextSetBit(start)) {
+                int end = chunks.nextClearBit(start);
+                registrar.registerRange(entry.getKey(), start, end, volumeDb);
+                markRegistered(entry.getKey(), start, end, volumeDb);
+                start = end;
+            }
+        }
+        if (!batch.isEmpty()) {
+            scheduleTick(pacer.getDelayMs());
+        } else if (hasPlayingPending(heads)) {
+            // Chunks outside every window wait for a playhead to come near them
+            scheduleTick(IDLE_TICK_MS);
+        }
+    }
+
+    private boolean hasPlayingPending(Map<String, List<Integer>> heads) {
+        for (String trackId : pending.keySet()) {
+            List<Integer> trackHeads = heads.get(trackId);
+            if (trackHeads != null && !trackHeads.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Releases registered chunks outside the window of every playhead of their track and
+     * queues them again, so seeking or looping back registers them anew. Tracks nobody
+     * is playing are left alone; dropping those whole is the runtime asset budget's job.
+     */
+    private void releaseBehind(Map<String, List<Integer>> heads, Set<String> looping, Window limits) {
+        if (!limits.bounded()) {
+            return;
+        }
+        for (Map.Entry<String, Pending> entry : registered.entrySet()) {
+            String trackId = entry.getKey();
+            List<Integer> trackHeads = heads.get(trackId);
+            if (trackHeads == null || trackHeads.isEmpty()) {
+                continue;
+            }
+            Pending track = entry.getValue();
+            BitSet released;
+            synchronized (track.chunks) {
+                released = (BitSet) track.chunks.clone();
+                for (int head : trackHeads) {
+                    released.clear(Math.max(0, head - limits.behind()), head + limits.ahead());
+                }
+                if (looping.contains(trackId)) {
+                    released.clear(0, limits.ahead());
+                }
+                track.chunks.andNot(released);
+            }
+            for (int start = released.nextSetBit(0); start >= 0; start = released.nextSetBit(start)) {
+                int end = released.nextClearBit(start);
+                registrar.releaseRange(trackId, start, end);
+                addPending(trackId, start, end, track.volumeDb);
+                start = end;
+            }
+        }
+    }
+
+    private void addPending(String trackId, int startInclusive, int endExclusive, float volumeDb) {
+        while (true) {
+            Pending track = pending.computeIfAbsent(trackId, key -> new Pending(volumeDb));
+            synchronized (track.chunks) {
+                // A drained entry is removed under this lock; start a fresh one if we lost that race
+                if (pending.get(trackId) != track) {
+                    continue;
+                }
+                track.volumeDb = volumeDb;
+                track.chunks.set(startInclusive, endExclusive);
+            }
+            return;
+        }
+    }
+
+    private synchronized Map<String, Pending> takeBatch(Map<String, List<Integer>> heads, Set<String> looping,
+            Window limits) {
+        int batchSize = pacer.getBatchSize();
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparingLong(Candidate::score));
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            String trackId = entry.getKey();
+            BitSet chunks = entry.getValue().chunks;
+            synchronized (chunks) {
+                List<Integer> trackHeads = heads.get(trackId);
+                int limit = limits.bounded() ? limits.ahead() : Integer.MAX_VALUE;
+                if (trackHeads == null || trackHeads.isEmpty()) {
+                    // Not playing yet: playback starts at the beginning
+                    addInOrder(queue, trackId, chunks, batchSize, limit, IDLE_TRACK_SCORE);
+                    continue;
+                }
+                for (int head : trackHeads) {
+                    int taken = 0;
+                    int end = limits.bounded() ? head + limits.ahead() : Integer.MAX_VALUE;
+                    for (int chunk = chunks.nextSetBit(head); chunk >= 0 && chunk < end && taken < batchSize;
+                            chunk = chunks.nextSetBit(chunk + 1)) {
+                        queue.add(new Candidate(trackId, chunk, chunk - head));
+                        taken++;
+                    }
+                }
+                // Behind the playhead only matters for loops and seeks back, which the
+                // window only covers for looped tracks
+                if (!limits.bounded() || looping.contains(trackId)) {
+                    addInOrder(queue, trackId, chunks, batchSize, limit, BEHIND_PLAYHEAD_SCORE);
+                }
+            }
+        }
+
+        Map<String, Pending> batch = new HashMap<>();
+        int taken = 0;
+        while (taken < batchSize && !queue.isEmpty()) {
+            Candidate candidate = queue.poll();
+            Pending track = pending.get(candidate.trackId());
+            if (track == null) {
+                continue;
+            }
+            BitSet selected = batch.computeIfAbsent(candidate.trackId(), key -> new Pending(track.volumeDb)).chunks;
+            if (!selected.get(candidate.chunk())) {
+                selected.set(candidate.chunk());
+                taken++;
+            }
+        }
+        for (Map.Entry<String, Pending> entry : batch.entrySet()) {
+            Pending track = pending.get(entry.getKey());
+            if (track == null) {
+                continue;
+            }
+            synchronized (track.chunks) {
+                track.chunks.andNot(entry.getValue().chunks);
+                if (track.chunks.isEmpty()) {
+                    pending.remove(entry.getKey(), track);
+                }
+            }
+        }
+        return batch;
+    }
+
+    private void addInOrder(PriorityQueue<Candidate> queue, String trackId, BitSet chunks, int batchSize,
+            int endExclusive, long baseScore) {
+        int taken = 0;
+        for (int chunk = chunks.nextSetBit(0); chunk >= 0 && chunk < endExclusive && taken < batchSize;
+                chunk = chunks.nextSetBit(chunk + 1)) {
+            queue.add(new Candidate(trackId, chunk, baseScore + chunk));
+            taken++;
+        }
+    }
+}
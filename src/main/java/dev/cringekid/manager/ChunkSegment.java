@@ -0,0 +1,27 @@
+package dev.cringekid.manager;
+
+/**
+ * One chunk as reported by ffmpeg's segment list, with its real start and end time
+ * in the source track.
+ */
+record ChunkSegment(int index, String fileName, double startSeconds, double endSeconds) {
+
+    /**
+     * Parses a line of ffmpeg's csv segment list: {@code filename,start,end}. The file
+     * name is quoted when it contains a comma, so the times are read from the end.
+     */
+    static ChunkSegment parseCsv(int index, String line) {
+        int endComma = line.lastIndexOf(',');
+        int startComma = endComma > 0 ? line.lastIndexOf(',', endComma - 1) : -1;
+        if (startComma < 0) {
+            throw new IllegalArgumentException("Malformed segment list entry: " + line);
+        }
+        String fileName = line.substring(0, startComma);
+        if (fileName.length() >= 2 && fileName.startsWith("\"") && fileName.endsWith("\"")) {
+            fileName = fileName.substring(1, fileName.length() - 1).replace("\"\"", "\"");
+        }
+        double start = Double.parseDouble(line.substring(startComma + 1, endComma).trim());
+        double end = Double.parseDouble(line.substring(endComma + 1).trim());
+        return new ChunkSegment(index, fileName, start, end);
+    }
+}
@@ -0,0 +1,67 @@
+package dev.cringekid.manager;
+
+import java.util.Arrays;
+
+/**
+ * Start and end of every chunk of a track. Once a track is split the boundaries come
+ * from ffmpeg's segment list (via the {@link ChunkManifest}), so chunks that came out a
+ * little longer or shorter than planned are scheduled and seeked by their real length
+ * and long tracks do not drift. Until then the planned {@link ChunkLayout} stands in.
+ */
+public final class ChunkTimeline {
+    // boundaries[i] is where chunk i starts, boundaries[count] where the last one ends
+    private final long[] boundaries;
+
+    private ChunkTimeline(long[] boundaries) {
+        this.boundaries = boundaries;
+    }
+
+    static ChunkTimeline planned(ChunkLayout layout, int chunkCount) {
+        long[] boundaries = new long[Math.max(1, chunkCount) + 1];
+        for (int i = 0; i < boundaries.length; i++) {
+            boundaries[i] = layout.startMs(i);
+        }
+        return new ChunkTimeline(boundaries);
+    }
+
+    static ChunkTimeline of(ChunkManifest manifest) {
+        int count = manifest.getChunkCount();
+        long[] boundaries = new long[count + 1];
+        for (int i = 0; i < count; i++) {
+            ChunkManifest.Chunk chunk = manifest.chunks.get(i);
+            // Keep boundaries increasing even if a chunk reported no duration
+            boundaries[i] = i == 0 ? 0 : Math.max(boundaries[i - 1] + 1, chunk.startMs);
+            boundaries[i + 1] = boundaries[i] + Math.max(1, chunk.durationMs);
+        }
+        return new ChunkTimeline(boundaries);
+    }
+
+    public int getChunkCount() {
+        return boundaries.length - 1;
+    }
+
+    public long getStartMs(int chunk) {
+        return boundaries[clamp(chunk)];
+    }
+
+    public long getDurationMs(int chunk) {
+        int index = clamp(chunk);
+        return boundaries[index + 1] - boundaries[index];
+    }
+
+    public long getTotalMs() {
+        return boundaries[boundaries.length - 1];
+    }
+
+    /**
+     * The chunk playing at {@code positionMs}.
+     */
+    public int chunkAt(long positionMs) {
+        int found = Arrays.binarySearch(boundaries, 0, boundaries.length - 1, positionMs);
+        return clamp(found >= 0 ? found : -found - 2);
+    }
+
+    private int clamp(int chunk) {
+        return Math.max(0, Math.min(chunk, getChunkCount() - 1));
+    }
+}
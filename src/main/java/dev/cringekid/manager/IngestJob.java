@@ -0,0 +1,255 @@
+package dev.cringekid.manager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The external processes fetching and splitting one track, shared by every requester
+ * waiting for it. Requesters hold the job while they want the track; when the last one
+ * lets go, the owner may {@link #cancel()} it, which kills its processes and runs the
+ * registered cleanup, typically deleting partial files. Independently of that, every
+ * process gets a wall-clock limit for its stage and is killed when it runs past it, so
+ * a hung yt-dlp or ffmpeg cannot hold a worker forever.
+ */
+final class IngestJob {
+
+    private static final class Watch {
+        private final String stage;
+        private final long timeoutMs;
+        private final List<Process> processes;
+        private final AtomicInteger running;
+        private volatile ScheduledFuture<?> deadline;
+
+        private Watch(String stage, long timeoutMs, List<Process> processes) {
+            this.stage = stage;
+            this.timeoutMs = timeoutMs;
+            this.processes = processes;
+            this.running = new AtomicInteger(processes.size());
+        }
+    }
+
+    private final String trackId;
+    private final ScheduledExecutorService timer;
+    private final Set<String> holders = new HashSet<>();
+    private final List<Runnable> cleanup = new ArrayList<>();
+    private final Map<Process, Watch> watches = new ConcurrentHashMap<>();
+    // The stage whose time ran out, until a failure has been explained by it
+    private volatile Watch expired;
+    private int stages;
+    private boolean cancelled;
+
+    IngestJob(String trackId, ScheduledExecutorService timer) {
+        this.trackId = trackId;
+        this.timer = timer;
+    }
+
+    String getTrackId() {
+        return trackId;
+    }
+
+    synchronized void acquire(String requesterId) {
+        holders.add(requesterId);
+    }
+
+    /**
+     * Returns true when this was the last holder.
+     */
+    synchronized boolean release(String requesterId) {
+        return holders.remove(requesterId) && holders.isEmpty();
+    }
+
+    synchronized boolean isHeld() {
+        return !holders.isEmpty();
+    }
+
+    synchronized void beginStage() {
+        stages++;
+    }
+
+    /**
+     * Returns true when no stage is running any more.
+     */
+    synchronized boolean endStage() {
+        stages = Math.max(0, stages - 1);
+        return stages == 0;
+    }
+
+    synchronized boolean isRunning() {
+        return stages > 0;
+    }
+
+    synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Whether a time limit ran out and killed processes, until {@link #explain} reports it.
+     */
+    boolean hasTimedOut() {
+        return expired != null;
+    }
+
+    /**
+     * Runs {@code action} if the job is cancelled, right away if it already is.
+     */
+    void onCancel(Runnable action) {
+        synchronized (this) {
+            if (!cancelled) {
+                cleanup.add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Kills the job's processes and runs its cleanup. Returns false if it was cancelled
+     * before.
+     */
+    boolean cancel() {
+        List<Runnable> actions;
+        synchronized (this) {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            actions = new ArrayList<>(cleanup);
+            cleanup.clear();
+        }
+        killAll();
+        for (Runnable action : actions) {
+            action.run();
+        }
+        return true;
+    }
+
+    /**
+     * Throws if the job was cancelled, e.g. while the stage about to start was queued.
+     */
+    void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Ingest of " + trackId + " was cancelled");
+        }
+    }
+
+    Process start(ProcessBuilder builder, String stage, long timeoutMs) throws IOException {
+        return startPipeline(List.of(builder), stage, timeoutMs).get(0);
+    }
+
+    /**
+     * Starts processes for this job that are killed together once they have run for
+     * {@code timeoutMs} (0 or less for no limit), or when the job is cancelled. Wait
+     * for them with {@link #waitFor}.
+     */
+    List<Process> startPipeline(List<ProcessBuilder> builders, String stage, long timeoutMs) throws IOException {
+        checkCancelled();
+        List<Process> processes = builders.size() == 1
+                ? List.of(builders.get(0).start())
+                : ProcessBuilder.startPipeline(builders);
+        Watch watch = new Watch(stage, timeoutMs, processes);
+        for (Process process : processes) {
+            watches.put(process, watch);
+        }
+        if (timeoutMs > 0) {
+            arm(watch);
+        }
+        // Cancelled while the processes were starting
+        if (isCancelled()) {
+            processes.forEach(IngestJob::kill);
+        }
+        return processes;
+    }
+
+    /**
+     * Starts the time limit of a process's stage over, e.g. each time a batch run
+     * finishes an item, so the limit applies per item instead of to the whole run. Does
+     * nothing once the limit has run out.
+     */
+    void extendDeadline(Process process) {
+        Watch watch = watches.get(process);
+        if (watch == null || watch.timeoutMs <= 0) {
+            return;
+        }
+        ScheduledFuture<?> deadline = watch.deadline;
+        if (deadline != null && deadline.cancel(false)) {
+            arm(watch);
+        }
+    }
+
+    /**
+     * Waits for one of the job's processes and returns its exit code. Throws instead
+     * when the process was killed because the job was cancelled or ran out of time.
+     */
+    int waitFor(Process process) throws InterruptedException {
+        int exitCode = process.waitFor();
+        Watch watch = watches.remove(process);
+        if (watch != null && watch.running.decrementAndGet() == 0 && watch.deadline != null) {
+            watch.deadline.cancel(false);
+        }
+        checkCancelled();
+        if (watch != null && expired == watch) {
+            expired = null;
+            throw timedOut(watch);
+        }
+        return exitCode;
+    }
+
+    /**
+     * Why the job's work failed: cancellation or a timeout if one of those killed its
+     * processes, otherwise {@code failure} itself.
+     */
+    Throwable explain(Throwable failure) {
+        if (isCancelled()) {
+            return new CancellationException("Ingest of " + trackId + " was cancelled");
+        }
+        Watch watch = expired;
+        if (watch != null) {
+            expired = null;
+            return timedOut(watch);
+        }
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     * Kills whatever processes of the job are still running, e.g. when one worker of a
+     * split failed and the others would only finish a doomed split.
+     */
+    void killAll() {
+        for (Map.Entry<Process, Watch> entry : watches.entrySet()) {
+            if (entry.getValue().deadline != null) {
+                entry.getValue().deadline.cancel(false);
+            }
+            kill(entry.getKey());
+        }
+        watches.clear();
+    }
+
+    private void arm(Watch watch) {
+        watch.deadline = timer.schedule(() -> {
+            expired = watch;
+            watch.processes.forEach(IngestJob::kill);
+        }, watch.timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private RuntimeException timedOut(Watch watch) {
+        return new RuntimeException(String.format("%s for %s timed out after %d s and was stopped", watch.stage,
+                trackId, TimeUnit.MILLISECONDS.toSeconds(watch.timeoutMs)));
+    }
+
+    private static void kill(Process process) {
+        // yt-dlp runs ffmpeg itself for remuxing; take those down with it
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+}
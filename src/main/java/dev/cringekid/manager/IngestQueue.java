@@ -0,0 +1,215 @@
+package dev.cringekid.manager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Decides which media job runs next on one of the {@link MediaExecutors} pools. Jobs
+ * wait here instead of in the pool, so the order is ours: playback requests first, then
+ * playlist imports, then background warmers. Within a priority, requesters take turns,
+ * and no requester runs more than the per-requester cap at once, so one player pasting
+ * ten URLs cannot hold up everybody else. Background jobs never take the last slot, so
+ * a playback request never waits for warmers alone.
+ * <p>
+ * Waiting jobs are told their position in line, counting from 1, whenever it changes,
+ * and 0 once they start. Only the first {@value #MAX_REPORTED_POSITION} places are
+ * reported, so a large import does not hear about every job ahead of it starting; a job
+ * further back hears its place once it moves up into them.
+ */
+final class IngestQueue {
+    static final int MAX_REPORTED_POSITION = 10;
+
+    enum Priority {
+        PLAYBACK, IMPORT, BACKGROUND
+    }
+
+    private static final class Job {
+        private final String requesterId;
+        private final Priority priority;
+        private final Runnable task;
+        private final IntConsumer onPosition;
+        private int position = -1;
+
+        private Job(String requesterId, Priority priority, Runnable task, IntConsumer onPosition) {
+            this.requesterId = requesterId;
+            this.priority = priority;
+            this.task = task;
+            this.onPosition = onPosition;
+        }
+    }
+
+    private record Notice(Job job, int position) {
+    }
+
+    private final String name;
+    private final Executor executor;
+    private final int concurrency;
+    private final IntSupplier perRequesterCap;
+    // Per priority, each requester's jobs in order; map order is the order requesters take turns in
+    private final Map<Priority, LinkedHashMap<String, ArrayDeque<Job>>> waiting = new EnumMap<>(Priority.class);
+    private final Map<String, Integer> runningByRequester = new HashMap<>();
+    private int running;
+
+    /**
+     * @param concurrency     jobs run at once, i.e. the size of the pool behind {@code executor}
+     * @param perRequesterCap jobs one requester may run at once; 0 or less means no cap
+     */
+    IngestQueue(String name, Executor executor, int concurrency, IntSupplier perRequesterCap) {
+        this.name = name;
+        this.executor = executor;
+        this.concurrency = Math.max(1, concurrency);
+        this.perRequesterCap = perRequesterCap;
+        for (Priority priority : Priority.values()) {
+            waiting.put(priority, new LinkedHashMap<>());
+        }
+    }
+
+    <T> CompletableFuture<T> submit(String requesterId, Priority priority, Supplier<T> work,
+            IntConsumer onPosition) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Job[] job = new Job[1];
+        job[0] = new Job(requesterId, priority, () -> {
+            try {
+                result.complete(work.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                finished(job[0]);
+            }
+        }, onPosition != null ? onPosition : position -> {
+        });
+        synchronized (this) {
+            waiting.get(priority).computeIfAbsent(requesterId, key -> new ArrayDeque<>()).add(job[0]);
+        }
+        dispatch();
+        return result;
+    }
+
+    /**
+     * One-line summary, for the setup command.
+     */
+    synchronized String describe() {
+        int queued = 0;
+        for (Map<String, ArrayDeque<Job>> byRequester : waiting.values()) {
+            for (ArrayDeque<Job> jobs : byRequester.values()) {
+                queued += jobs.size();
+            }
+        }
+        return String.format("%s queue %d/%d running, %d waiting", name, running, concurrency, queued);
+    }
+
+    private void finished(Job job) {
+        synchronized (this) {
+            running--;
+            runningByRequester.merge(job.requesterId, -1, Integer::sum);
+            runningByRequester.remove(job.requesterId, 0);
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        List<Job> started = new ArrayList<>();
+        List<Notice> notices = new ArrayList<>();
+        synchronized (this) {
+            Job next;
+            while ((next = takeNext()) != null) {
+                running++;
+                runningByRequester.merge(next.requesterId, 1, Integer::sum);
+                started.add(next);
+                // Only jobs that had to wait hear that they started
+                if (next.position > 0) {
+                    notices.add(new Notice(next, 0));
+                }
+                next.position = 0;
+            }
+            int position = 0;
+            for (Job job : inLine()) {
+                position++;
+                if (position > MAX_REPORTED_POSITION) {
+                    break;
+                }
+                if (job.position != position) {
+                    job.position = position;
+                    notices.add(new Notice(job, position));
+                }
+            }
+        }
+        // Outside the lock; listeners may well submit more work
+        for (Notice notice : notices) {
+            try {
+                notice.job().onPosition.accept(notice.position());
+            } catch (RuntimeException ignored) {
+                // A listener failing must not stop the queue
+            }
+        }
+        for (Job job : started) {
+            executor.execute(job.task);
+        }
+    }
+
+    /**
+     * Removes and returns the job to start now, or null if none may start.
+     */
+    private Job takeNext() {
+        int cap = perRequesterCap.getAsInt();
+        for (Priority priority : Priority.values()) {
+            int limit = priority == Priority.BACKGROUND ? Math.max(1, concurrency - 1) : concurrency;
+            if (running >= limit) {
+                continue;
+            }
+            LinkedHashMap<String, ArrayDeque<Job>> byRequester = waiting.get(priority);
+            Iterator<Map.Entry<String, ArrayDeque<Job>>> turns = byRequester.entrySet().iterator();
+            while (turns.hasNext()) {
+                Map.Entry<String, ArrayDeque<Job>> turn = turns.next();
+                if (cap > 0 && runningByRequester.getOrDefault(turn.getKey(), 0) >= cap) {
+                    continue;
+                }
+                ArrayDeque<Job> jobs = turn.getValue();
+                Job job = jobs.poll();
+                // The requester goes to the back of the line for its next job
+                turns.remove();
+                if (!jobs.isEmpty()) {
+                    byRequester.put(turn.getKey(), jobs);
+                }
+                return job;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Waiting jobs in the order they would start if no cap held them back: by priority,
+     * then one job per requester per round.
+     */
+    private List<Job> inLine() {
+        List<Job> line = new ArrayList<>();
+        for (LinkedHashMap<String, ArrayDeque<Job>> byRequester : waiting.values()) {
+            List<Iterator<Job>> turns = new ArrayList<>();
+            for (ArrayDeque<Job> jobs : byRequester.values()) {
+                turns.add(jobs.iterator());
+            }
+            boolean any = true;
+            while (any) {
+                any = false;
+                for (Iterator<Job> turn : turns) {
+                    if (turn.hasNext()) {
+                        line.add(turn.next());
+                        any = true;
+                    }
+                }
+            }
+        }
+        return line;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.cringekid.manager;
+
+import com.hypixel.hytale.server.core.asset.common.CommonAsset;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
+
+/**
+ * Common asset that keeps no bytes on the heap. Only the name and content hash are held;
+ * the bytes are produced when the asset is actually served. Immutable files such as
+ * chunks and thumbnails are served through a {@link MappedFilePool}, which keeps the
+ * most recently served ones mapped within its budget. Files that may be rewritten, like
+ * track models, are simply read on demand.
+ */
+final class LazyFileCommonAsset extends CommonAsset {
+    private final Path file;
+    @Nullable
+    private final MappedFilePool pool;
+    @Nullable
+    private final Runnable onMissing;
+
+    private LazyFileCommonAsset(Path file, String name, String hash, @Nullable MappedFilePool pool,
+            @Nullable Runnable onMissing) {
+        super(name, hash, null);
+        this.file = file;
+        this.pool = pool;
+        this.onMissing = onMissing;
+    }
+
+    /**
+     * @param sha256 content hash if already known (e.g. from the chunk manifest), or null
+     *               to hash the file now
+     */
+    static LazyFileCommonAsset of(Path file, String name, @Nullable String sha256) throws IOException {
+        return of(file, name, sha256, null, null);
+    }
+
+    /**
+     * @param pool      serves the file from a mapping; null reads it on every serve. Only
+     *                  for files that are not rewritten while registered
+     * @param onMissing runs when the file turns out to be gone when it is served, since
+     *                  registration does not check that it exists
+     */
+    static LazyFileCommonAsset of(Path file, String name, @Nullable String sha256, @Nullable MappedFilePool pool,
+            @Nullable Runnable onMissing) throws IOException {
+        String hash = sha256 != null ? sha256 : ChunkCache.sha256(file);
+        return new LazyFileCommonAsset(file, name, hash, pool, onMissing);
+    }
+
+    @Override
+    protected CompletableFuture<byte[]> getBlob0() {
+        try {
+            return CompletableFuture.completedFuture(pool != null ? pool.read(file) : Files.readAllBytes(file));
+        } catch (NoSuchFileException e) {
+            if (onMissing != null) {
+                onMissing.run();
+            }
+            return CompletableFuture.failedFuture(e);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package dev.cringekid.manager;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Loudness of a whole track as measured by ffmpeg's loudnorm first pass. Feeding it back
+ * into loudnorm gives a linear, whole-track normalization that stays identical when the
+ * track is encoded in independent pieces. Stored in the song index like
+ * {@link MediaManager.StoredSong}, so it is a plain class Gson can fill in.
+ */
+final class LoudnessMeasurement {
+    double inputI;
+    double inputTp;
+    double inputLra;
+    double inputThresh;
+    double targetOffset;
+
+    LoudnessMeasurement() {
+    }
+
+    LoudnessMeasurement(double inputI, double inputTp, double inputLra, double inputThresh, double targetOffset) {
+        this.inputI = inputI;
+        this.inputTp = inputTp;
+        this.inputLra = inputLra;
+        this.inputThresh = inputThresh;
+        this.targetOffset = targetOffset;
+    }
+
+    /**
+     * Extracts the JSON block loudnorm prints with {@code print_format=json} from ffmpeg's
+     * output. Returns null when there is none or it holds non-finite values (silence).
+     */
+    static LoudnessMeasurement parse(String ffmpegOutput) {
+        int start = ffmpegOutput.lastIndexOf('{');
+        int end = ffmpegOutput.lastIndexOf('}');
+        if (start < 0 || end <= start) {
+            return null;
+        }
+        try {
+            JsonObject json = JsonParser.parseString(ffmpegOutput.substring(start, end + 1)).getAsJsonObject();
+            LoudnessMeasurement measurement = new LoudnessMeasurement(
+                    Double.parseDouble(json.get("input_i").getAsString()),
+                    Double.parseDouble(json.get("input_tp").getAsString()),
+                    Double.parseDouble(json.get("input_lra").getAsString()),
+                    Double.parseDouble(json.get("input_thresh").getAsString()),
+                    Double.parseDouble(json.get("target_offset").getAsString()));
+            return measurement.isFinite() ? measurement : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The second-pass filter for the given first-pass target, e.g.
+     * {@code loudnorm=I=-16:TP=-1.5:LRA=11}.
+     */
+    String toLinearFilter(String targetFilter) {
+        return String.format(java.util.Locale.ROOT,
+                "%s:measured_I=%.2f:measured_TP=%.2f:measured_LRA=%.2f:measured_thresh=%.2f:offset=%.2f:linear=true",
+                targetFilter, inputI, inputTp, inputLra, inputThresh, targetOffset);
+    }
+
+    private boolean isFinite() {
+        return Double.isFinite(inputI) && Double.isFinite(inputTp) && Double.isFinite(inputLra)
+                && Double.isFinite(inputThresh) && Double.isFinite(targetOffset);
+    }
+}
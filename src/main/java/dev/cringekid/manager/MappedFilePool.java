@@ -0,0 +1,124 @@
+package dev.cringekid.manager;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Read-only mappings of the asset files served most recently, within a byte budget and
+ * a file count. Chunks being played are served again and again to every listener, so
+ * they come from a mapping instead of a read per serve, while the total mapped stays
+ * bounded however many chunks are registered. The least recently served file is
+ * unmapped first. Assets are served as a byte array, so every serve still copies the
+ * file onto the heap; only that copy is short-lived.
+ */
+final class MappedFilePool {
+    // Keeps well clear of the per-process mapping limit (vm.max_map_count)
+    private static final int MAX_MAPPED_FILES = 1024;
+
+    private record Mapping(Arena arena, MemorySegment segment, FileTime modified) {
+    }
+
+    private final LongSupplier budgetBytes;
+    private final LinkedHashMap<Path, Mapping> mappings = new LinkedHashMap<>(16, 0.75f, true);
+    private long mappedBytes;
+
+    /**
+     * @param budgetBytes bytes mapped at most; 0 or less reads every file instead
+     */
+    MappedFilePool(LongSupplier budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * The contents of a file, from its mapping if it has one or fits the budget.
+     */
+    byte[] read(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long budget = budgetBytes.getAsLong();
+        if (size == 0 || size > budget) {
+            return Files.readAllBytes(file);
+        }
+        synchronized (this) {
+            Mapping mapping = mappings.get(file);
+            if (mapping != null && (mapping.segment().byteSize() != size
+                    || !mapping.modified().equals(attributes.lastModifiedTime()))) {
+                // Written again since it was mapped, e.g. by a new split of the track
+                unmap(mappings.remove(file));
+                mapping = null;
+            }
+            if (mapping == null) {
+                mapping = map(file, attributes.lastModifiedTime());
+                mappings.put(file, mapping);
+                mappedBytes += mapping.segment().byteSize();
+                trim(budget);
+            }
+            // Copied under the lock, so a mapping is never closed during a copy
+            return mapping.segment().toArray(ValueLayout.JAVA_BYTE);
+        }
+    }
+
+    /**
+     * Unmaps the files matching {@code files}, e.g. before they are deleted or written again.
+     */
+    synchronized void release(Predicate<Path> files) {
+        Iterator<Map.Entry<Path, Mapping>> it = mappings.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, Mapping> entry = it.next();
+            if (files.test(entry.getKey())) {
+                it.remove();
+                unmap(entry.getValue());
+            }
+        }
+    }
+
+    synchronized void releaseAll() {
+        release(file -> true);
+    }
+
+    /**
+     * Number of mapped files and their total size, i.e. the off-heap footprint.
+     */
+    synchronized String describe() {
+        return String.format("%d files mapped off-heap (%.1f of %.1f MB)", mappings.size(),
+                mappedBytes / (1024.0 * 1024.0), Math.max(0, budgetBytes.getAsLong()) / (1024.0 * 1024.0));
+    }
+
+    private static Mapping map(Path file, FileTime modified) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new Mapping(arena, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena), modified);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    private void trim(long budget) {
+        Iterator<Mapping> it = mappings.values().iterator();
+        // The file just mapped is the most recent and fits the budget on its own
+        while ((mappedBytes > budget || mappings.size() > MAX_MAPPED_FILES) && mappings.size() > 1) {
+            Mapping eldest = it.next();
+            it.remove();
+            unmap(eldest);
+        }
+    }
+
+    private void unmap(Mapping mapping) {
+        mappedBytes -= mapping.segment().byteSize();
+        mapping.arena().close();
+    }
+}
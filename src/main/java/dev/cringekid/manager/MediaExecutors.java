@@ -0,0 +1,102 @@
+package dev.cringekid.manager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The thread pools MediaRadio's background work runs on, one per kind of work, so a
+ * burst of requests can neither starve another kind nor the server's own executors:
+ * <ul>
+ * <li>network: yt-dlp metadata, downloads, playlist listings and thumbnails,</li>
+ * <li>transcode: preparing a track for playback, i.e. the ffmpeg split,</li>
+ * <li>ingest: running a chunk ingest to its end, which outlasts the transcode job that
+ * started it once playback can begin. It has as many threads as the transcode pool, so
+ * that many ingests run at once, however many tracks started playing meanwhile,</li>
+ * <li>split output: reading the segment lists of the extra ffmpeg workers of a parallel
+ * split,</li>
+ * <li>registration: loading chunks into the asset store and unloading them again.</li>
+ * </ul>
+ * Each pool has a fixed number of threads; work beyond that waits in its queue, which
+ * {@link #describe()} reports.
+ */
+final class MediaExecutors {
+    private final ThreadPoolExecutor network;
+    private final ThreadPoolExecutor transcode;
+    private final ThreadPoolExecutor ingest;
+    private final ThreadPoolExecutor splitOutput;
+    private final ScheduledThreadPoolExecutor registration;
+
+    MediaExecutors(int networkThreads, int transcodeThreads, int registrationThreads) {
+        this.network = fixedPool(networkThreads, "Network");
+        this.transcode = fixedPool(transcodeThreads, "Transcode");
+        this.ingest = fixedPool(transcodeThreads, "Ingest");
+        // Readers only wait on ffmpeg, never on each other, so a queue behind them cannot deadlock
+        this.splitOutput = fixedPool(Math.max(2, Runtime.getRuntime().availableProcessors()), "SplitOutput");
+        this.registration = new ScheduledThreadPoolExecutor(Math.max(1, registrationThreads),
+                threadFactory("Assets"));
+        // Coalesced volume rebinds are cancelled all the time; do not keep them queued
+        this.registration.setRemoveOnCancelPolicy(true);
+    }
+
+    ExecutorService network() {
+        return network;
+    }
+
+    ExecutorService transcode() {
+        return transcode;
+    }
+
+    ExecutorService ingest() {
+        return ingest;
+    }
+
+    ExecutorService splitOutput() {
+        return splitOutput;
+    }
+
+    ScheduledExecutorService registration() {
+        return registration;
+    }
+
+    /**
+     * Busy threads and queued tasks per pool, for the setup command.
+     */
+    String describe() {
+        return String.format("executors: network %s, transcode %s, ingest %s, registration %s",
+                describe(network), describe(transcode), describe(ingest), describe(registration));
+    }
+
+    void shutdown() {
+        network.shutdownNow();
+        transcode.shutdownNow();
+        ingest.shutdownNow();
+        splitOutput.shutdownNow();
+        registration.shutdownNow();
+    }
+
+    private static String describe(ThreadPoolExecutor pool) {
+        return String.format("%d/%d busy, %d queued", pool.getActiveCount(), pool.getCorePoolSize(),
+                pool.getQueue().size());
+    }
+
+    private static ThreadPoolExecutor fixedPool(int threads, String name) {
+        int size = Math.max(1, threads);
+        return new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                threadFactory(name));
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "MediaRadio-" + name + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -3,6 +3,7 @@ package dev.cringekid.manager;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import com.hypixel.hytale.server.core.HytaleServer;
 import dev.cringekid.MediaRadioPlugin;
 
 import java.io.File;
@@ -16,13 +17,19 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 public class MediaLibrary {
+    // Status updates come in bursts, e.g. during a playlist import; they are written once per burst
+    private static final long SAVE_DELAY_MS = 2000;
+
     private final MediaRadioPlugin plugin;
     private final File libraryFile;
     private final Gson gson;
+    private final AtomicBoolean saveScheduled = new AtomicBoolean(false);
     private Map<String, List<SavedSong>> songsByPlayer;
 
     public MediaLibrary(MediaRadioPlugin plugin) {
@@ -54,7 +61,7 @@ public class MediaLibrary {
         }
     }
 
-    public void save() {
+    public synchronized void save() {
         if (libraryFile.getParentFile() != null && !libraryFile.getParentFile().exists()) {
             libraryFile.getParentFile().mkdirs();
         }
@@ -66,6 +73,28 @@ public class MediaLibrary {
         }
     }
 
+    /**
+     * Saves a little later, so a burst of changes is written once.
+     */
+    public void scheduleSave() {
+        if (saveScheduled.compareAndSet(false, true)) {
+            HytaleServer.SCHEDULED_EXECUTOR.schedule(() -> {
+                if (saveScheduled.compareAndSet(true, false)) {
+                    save();
+                }
+            }, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes a scheduled save right away, e.g. on shutdown.
+     */
+    public void flush() {
+        if (saveScheduled.compareAndSet(true, false)) {
+            save();
+        }
+    }
+
     public void resetTransientStatuses() {
         boolean changed = false;
         for (List<SavedSong> list : songsByPlayer.values()) {
@@ -130,8 +159,12 @@ public class MediaLibrary {
         return false;
     }
 
-    public void upsertSongStatus(String playerId, String url, String status, String title, String artist, String thumbnailUrl,
-            long duration, String trackId, String thumbnailAssetPath) {
+    /**
+     * Updates a song's status and any details given, adding the song if it is not in the
+     * library yet. The library is saved shortly after, together with other updates.
+     */
+    public synchronized void upsertSongStatus(String playerId, String url, String status, String title, String artist,
+            String thumbnailUrl, long duration, String trackId, String thumbnailAssetPath) {
         if (url == null || url.isEmpty()) {
             return;
         }
@@ -163,7 +196,7 @@ public class MediaLibrary {
                 if (!normalizedUrl.equals(songUrl)) {
                     s.url = normalizedUrl;
                 }
-                save();
+                scheduleSave();
                 return;
             }
         }
@@ -176,7 +209,28 @@ public class MediaLibrary {
                 trackId,
                 thumbnailAssetPath,
                 status));
-        save();
+        scheduleSave();
+    }
+
+    /**
+     * Shows a status that only matters while the server runs, such as a place in line,
+     * without saving; statuses are reset to Ready when the library loads anyway.
+     */
+    public synchronized void setTransientStatus(String playerId, String url, String status) {
+        if (url == null || url.isEmpty() || playerId == null || playerId.isEmpty()) {
+            return;
+        }
+        List<SavedSong> songs = songsByPlayer.get(playerId);
+        if (songs == null) {
+            return;
+        }
+        String normalizedUrl = normalizeUrlForMatch(url);
+        for (SavedSong s : songs) {
+            if (s.url != null && (url.equals(s.url) || normalizedUrl.equals(normalizeUrlForMatch(s.url)))) {
+                s.status = status;
+                return;
+            }
+        }
     }
 
     private String normalizeUrlForMatch(String url) {
@@ -194,7 +248,7 @@ public class MediaLibrary {
         }
     }
 
-    public void removeSong(String playerId, String url) {
+    public synchronized void removeSong(String playerId, String url) {
         if (url == null || url.isEmpty()) {
             return;
         }
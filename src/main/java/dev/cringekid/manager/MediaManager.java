@@ -42,13 +42,60 @@ import java.io.ByteArrayOutputStream;
 
 public class MediaManager {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final java.net.http.HttpClient THUMBNAIL_HTTP = java.net.http.HttpClient.newBuilder()
+            .followRedirects(java.net.http.HttpClient.Redirect.NORMAL)
+            .connectTimeout(java.time.Duration.ofSeconds(10))
+            .build();
     private static final String RUNTIME_PACK_NAME = "MediaRadioRuntime";
     private static final String RUNTIME_ASSETS_DIR = "media_radio_assets";
     private static final String STORAGE_DIR = "songs";
+    // Stored audio keeps the source's own codec; streamed sources are remuxed into Matroska.
+    // Older installs stored a Vorbis transcode, which is still found through "ogg".
+    private static final String STREAMED_AUDIO_EXTENSION = "mka";
+    private static final java.util.List<String> STORED_AUDIO_EXTENSIONS = java.util.List.of(
+            "opus", "m4a", STREAMED_AUDIO_EXTENSION, "webm", "ogg", "mp3", "aac", "flac", "wav");
+    private static final String CHUNK_CACHE_DIR = "media_radio_cache";
+    // yt-dlp stderr logs; outside the songs directory so they never count against its quota
+    private static final String TEMP_DIR = "media_radio_tmp";
+    // Only the fields a StoredSong keeps, printed as one small JSON object per URL
+    // instead of the full info dict with every format and thumbnail
+    private static final String METADATA_PRINT_TEMPLATE =
+            "%(.{original_url,id,extractor_key,title,uploader,thumbnail,duration})j";
+    // What --flat-playlist knows about each entry without visiting its page
+    private static final String PLAYLIST_ENTRY_PRINT_TEMPLATE = "%(.{url,id,title,uploader,channel,duration})j";
+    // Requester of work nobody is waiting for, such as metadata refreshes and thumbnail warming
+    private static final String BACKGROUND_REQUESTER = "background";
+    // How often a job nobody holds is checked again while its track is still playing
+    private static final long IDLE_JOB_CHECK_MS = 5_000L;
+    // Frequent small index changes such as play counts are written at most this often
+    private static final long SONG_INDEX_SAVE_DELAY_MS = 5_000L;
     private static final int CURRENT_NORMALIZATION_VERSION = 1;
     private static final int INITIAL_ASSET_BATCH = 100;
     private static final int BACKGROUND_ASSET_BATCH = 75;
     private static final long BACKGROUND_ASSET_DELAY_MS = 750L;
+    private static final int STREAM_START_CHUNKS = 4;
+    // Volume clicks arriving within this window are applied as one change
+    private static final long VOLUME_COALESCE_MS = 250L;
+    // Chunks ahead of a playhead that are rebound to a new volume right away
+    private static final int VOLUME_REBIND_WINDOW = 16;
+    // Precompiled SoundEvent body, split where the per-chunk values go: event volume,
+    // sound file, layer volume. Matches what the pretty-printed map used to produce.
+    private static final String SOUND_EVENT_HEAD =
+            "{\"Parent\":\"SFX_Attn_Quiet\",\"StartAttenuationDistance\":10,\"MaxDistance\":60,\"Pitch\":0.0,\"Volume\":";
+    private static final String SOUND_EVENT_FILES = ",\"Layers\":[{\"Files\":[\"";
+    private static final String SOUND_EVENT_LAYER_VOLUME = "\"],\"Volume\":";
+    private static final String SOUND_EVENT_TAIL = "}]}";
+    private static final String LOUDNORM_FILTER = "loudnorm=I=-16:TP=-1.5:LRA=11";
+    // Makes one-pass loudnorm print its measurement to stderr when the split ends
+    private static final String LOUDNORM_REPORT = ":print_format=json";
+    private static final String CHUNK_ENCODER = "libvorbis -q:a 4 -ac 1 -af ";
+    // Shortest time range worth its own ffmpeg worker in a parallel split
+    private static final double PARALLEL_SPLIT_MIN_RANGE_SECONDS = 120.0;
+    private static final String RECHUNK_STAGING_SUFFIX = ".rechunk";
+    // A segmenter cutting head chunks takes every split point on its command line; keep it under OS limits
+    private static final int MAX_SEGMENT_SPLIT_POINTS = 1500;
+    // Split points listed past the reported duration, in case the source runs longer
+    private static final long SPLIT_POINT_SLACK_MS = 60_000L;
 
     private final MediaRadioPlugin plugin;
     private final Path runtimeAssetsPath;
@@ -57,10 +104,44 @@ public class MediaManager {
     private final Path serverSoundEventsPath;
     private final Path thumbnailPath;
     private final Path storagePath;
+    private final Path tempPath;
     private final Path songsIndexFile;
+    private final ChunkCache chunkCache;
+    private final AssetLoadPacer assetLoadPacer;
+    private final ChunkRegistrationQueue registrationQueue;
 
     private final Map<String, StoredSong> storedSongs = new ConcurrentHashMap<>();
+    // Saves come from the world thread and the pools alike; one writes the index at a time
+    private final Object songIndexLock = new Object();
+    private final java.util.concurrent.atomic.AtomicBoolean songIndexSaveScheduled =
+            new java.util.concurrent.atomic.AtomicBoolean(false);
     private final Map<String, CompletableFuture<MediaInfo>> inFlightRequests = new ConcurrentHashMap<>();
+    private final java.util.Set<String> metadataRefreshes = ConcurrentHashMap.newKeySet();
+    private final Map<String, StreamingIngest> streamingIngests = new ConcurrentHashMap<>();
+    // Layout each ingest is splitting to, kept until its manifest is written
+    private final Map<String, ChunkLayout> ingestLayouts = new ConcurrentHashMap<>();
+    private final Map<String, IngestJob> ingestJobs = new ConcurrentHashMap<>();
+    // The track each requester is waiting for on each target (their own radio, a boombox),
+    // keyed by holdKey; requesting another one for the same target lets go of it
+    private final Map<String, String> requesterTracks = new ConcurrentHashMap<>();
+    // Volume each SoundEvent file was last written with, and the ones the asset store has
+    // not loaded since. The SoundEvents dir is wiped at boot, so this mirrors the disk.
+    private final Map<String, Float> writtenSoundEventVolumes = new ConcurrentHashMap<>();
+    private final java.util.Set<String> unloadedSoundEvents = ConcurrentHashMap.newKeySet();
+    // Volume every newly registered or rebound chunk of a track gets
+    private final Map<String, Float> trackVolumes = new ConcurrentHashMap<>();
+    private final Map<String, java.util.concurrent.ScheduledFuture<?>> pendingVolumeRebinds = new ConcurrentHashMap<>();
+    // Registered chunk audio by asset name, so releasing a range only touches what is registered
+    private final Map<String, LazyFileCommonAsset> chunkAssets = new ConcurrentHashMap<>();
+    // Tracks with a missing chunk, waiting to go idle before their manifest is dropped
+    private final java.util.Set<String> missingChunkTracks = ConcurrentHashMap.newKeySet();
+    private final RuntimeAssetRegistry runtimeAssets;
+    private final MappedFilePool mappedFiles;
+    private final SongStorageManager songStorage;
+    private final PlaylistImporter playlistImporter;
+    private final MediaExecutors executors;
+    private final IngestQueue fetchQueue;
+    private final IngestQueue prepareQueue;
 
     private final Path serverModelsPath;
     private final Path serverRolesPath;
@@ -71,7 +152,65 @@ public class MediaManager {
         this.mediaTools = EmbeddedTools.create(baseDir.resolve("media_radio_tools"));
         this.runtimeAssetsPath = baseDir.resolve(RUNTIME_ASSETS_DIR).toAbsolutePath();
         this.storagePath = baseDir.resolve(STORAGE_DIR).toAbsolutePath();
+        this.tempPath = baseDir.resolve(TEMP_DIR).toAbsolutePath();
         this.songsIndexFile = storagePath.resolve("song_index.json");
+        // Split chunks live outside the runtime pack so they survive restarts
+        this.chunkCache = new ChunkCache(plugin, baseDir.resolve(CHUNK_CACHE_DIR).toAbsolutePath());
+        var config = plugin.getConfig();
+        this.executors = new MediaExecutors(
+                config != null ? config.getNetworkThreads() : 4,
+                config != null ? config.getTranscodeThreads() : 2,
+                config != null ? config.getAssetRegistrationThreads() : 1);
+        java.util.function.IntSupplier perPlayerCap = () -> plugin.getConfig() != null
+                ? plugin.getConfig().getMaxIngestJobsPerPlayer()
+                : 2;
+        this.fetchQueue = new IngestQueue("fetch", executors.network(),
+                config != null ? config.getNetworkThreads() : 4, perPlayerCap);
+        this.prepareQueue = new IngestQueue("prepare", executors.transcode(),
+                config != null ? config.getTranscodeThreads() : 2, perPlayerCap);
+        this.assetLoadPacer = new AssetLoadPacer(
+                () -> plugin.getConfig() != null ? plugin.getConfig().getAssetLoadTickBudgetMs() : 10.0,
+                BACKGROUND_ASSET_BATCH,
+                BACKGROUND_ASSET_DELAY_MS);
+        this.registrationQueue = new ChunkRegistrationQueue(
+                new ChunkRegistrationQueue.Registrar() {
+                    @Override
+                    public void registerRange(String trackId, int startInclusive, int endExclusive, float volumeDb) {
+                        registerChunkRange(trackId, startInclusive, endExclusive, volumeDb);
+                    }
+
+                    @Override
+                    public void releaseRange(String trackId, int startInclusive, int endExclusive) {
+                        releaseChunkRange(trackId, startInclusive, endExclusive);
+                    }
+                },
+                () -> plugin.getPlaybackManager() != null
+                        ? plugin.getPlaybackManager().getPlayheadsByTrack()
+                        : Map.of(),
+                () -> plugin.getPlaybackManager() != null
+                        ? plugin.getPlaybackManager().getLoopingTracks()
+                        : java.util.Set.of(),
+                () -> plugin.getConfig() != null
+                        ? new ChunkRegistrationQueue.Window(plugin.getConfig().getChunkWindowAhead(),
+                                plugin.getConfig().getChunkWindowBehind())
+                        : ChunkRegistrationQueue.Window.UNBOUNDED,
+                assetLoadPacer,
+                executors.registration());
+        this.runtimeAssets = new RuntimeAssetRegistry(
+                () -> plugin.getConfig() != null ? plugin.getConfig().getRuntimeAssetBudgetMb() * 1024L * 1024L : 0L,
+                trackId -> streamingIngests.containsKey(trackId)
+                        || (plugin.getPlaybackManager() != null && plugin.getPlaybackManager().isTrackActive(trackId)),
+                this::evictTrackAssets);
+        this.mappedFiles = new MappedFilePool(
+                () -> plugin.getConfig() != null ? plugin.getConfig().getMappedAssetBudgetMb() * 1024L * 1024L : 0L);
+        this.songStorage = new SongStorageManager(plugin, storagePath, storedSongs,
+                trackId -> streamingIngests.containsKey(trackId) || inFlightRequests.containsKey(trackId)
+                        || (plugin.getPlaybackManager() != null && plugin.getPlaybackManager().isTrackActive(trackId)),
+                this::evictStoredSong,
+                executors.registration());
+        this.playlistImporter = new PlaylistImporter(
+                config != null ? config.getPlaylistImportConcurrency() : 3,
+                this::importPlaylistEntry);
         // Pack structure with Common/Server separation matching Vanilla
         // Audio files: Common/Sounds/media_radio/<path>
         this.commonAudioPath = runtimeAssetsPath.resolve("Common/Sounds/media_radio");
@@ -91,6 +230,9 @@ public class MediaManager {
             cleanupRuntimeFolders();
             ensureDirectories();
             loadSongIndex();
+            chunkCache.load();
+            chunkCache.prune();
+            songStorage.scheduleEnforce();
             registerRuntimePack();
             logExternalToolStatus();
 
@@ -113,15 +255,21 @@ public class MediaManager {
         Files.createDirectories(serverRolesPath);
         Files.createDirectories(thumbnailPath);
         Files.createDirectories(storagePath);
+        Files.createDirectories(chunkCache.getCacheDir());
+        Files.createDirectories(tempPath);
         plugin.getLogger().at(Level.INFO).log("Ensured directories exist at: %s", runtimeAssetsPath);
     }
 
     private void cleanupRuntimeFolders() {
+        // Chunks used to be split into the pack itself; they now live in the chunk cache
         deleteDirectory(commonAudioPath);
+        // SoundEvents carry the per-play volume and are rewritten on warm start
         deleteDirectory(serverSoundEventsPath);
         deleteDirectory(runtimeAssetsPath.resolve("Common/Models/MediaRadio")); // Cleanup old path
         deleteDirectory(serverModelsPath);
         deleteDirectory(serverRolesPath);
+        // Logs left behind by a crash
+        deleteDirectory(tempPath);
     }
 
     private void deleteDirectory(Path dir) {
@@ -171,56 +319,414 @@ public class MediaManager {
             }
             plugin.getLogger().at(Level.INFO).log("Loaded %d stored songs from %s", storedSongs.size(), songsIndexFile);
         } catch (Exception e) {
-            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to load song index");
+            // The next save would overwrite it with an empty index; keep it for recovery
+            Path unreadable = songsIndexFile.resolveSibling(
+                    "song_index.unreadable-" + System.currentTimeMillis() + ".json");
+            try {
+                Files.move(songsIndexFile, unreadable);
+                plugin.getLogger().at(Level.WARNING).withCause(e)
+                        .log("Failed to load song index; moved it to %s and starting empty", unreadable);
+            } catch (IOException moveError) {
+                plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to load song index");
+            }
         }
     }
 
+    /**
+     * Writes the index to a temporary file and moves it into place, so a crash mid-write
+     * leaves the previous index intact.
+     */
     private void saveSongIndex() {
-        try (Writer writer = Files.newBufferedWriter(songsIndexFile)) {
-            GSON.toJson(storedSongs, writer);
-        } catch (IOException e) {
-            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to save song index");
+        synchronized (songIndexLock) {
+            Path temp = songsIndexFile.resolveSibling(songsIndexFile.getFileName() + ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(temp)) {
+                    GSON.toJson(storedSongs, writer);
+                }
+                try {
+                    Files.move(temp, songsIndexFile, java.nio.file.StandardCopyOption.REPLACE_EXISTING,
+                            java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+                } catch (java.nio.file.AtomicMoveNotSupportedException e) {
+                    Files.move(temp, songsIndexFile, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to save song index");
+            }
         }
     }
 
-    public CompletableFuture<MediaInfo> requestMedia(String url) {
+    /**
+     * Saves the index a little later, so a burst of small changes is written once.
+     */
+    private void scheduleSongIndexSave() {
+        if (songIndexSaveScheduled.compareAndSet(false, true)) {
+            executors.registration().schedule(() -> {
+                songIndexSaveScheduled.set(false);
+                saveSongIndex();
+            }, SONG_INDEX_SAVE_DELAY_MS, java.util.concurrent.TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Resolves a URL to a track, downloading it first unless streaming ingest will. Work
+     * that cannot start right away waits in the fetch queue, and {@code onQueuePosition}
+     * hears its place in line as it changes, then 0 when it starts; it is not called at
+     * all when the request starts right away or is answered from the cache.
+     * {@code targetId} is where it will play, i.e. the library owner id.
+     */
+    public CompletableFuture<MediaInfo> requestMedia(String url, String requesterId, String targetId,
+            java.util.function.IntConsumer onQueuePosition) {
         String normalizedUrl = normalizeUrl(url);
         String trackId = getTrackIdForUrl(normalizedUrl);
+        // Somebody wants it now; a playlist import should not make them wait their turn
+        playlistImporter.prioritize(trackId);
 
-        // If we have the audio stored, we can re-resolve metadata for freshness.
+        MediaInfo cached = getCachedMediaInfo(trackId);
+        if (cached != null) {
+            plugin.getLogger().at(Level.INFO).log("Processing media request: %s -> %s (cached metadata)",
+                    normalizedUrl, trackId);
+            return CompletableFuture.completedFuture(cached);
+        }
 
         plugin.getLogger().at(Level.INFO).log("Processing media request: %s -> %s", normalizedUrl, trackId);
-        return inFlightRequests.computeIfAbsent(trackId, key -> CompletableFuture.supplyAsync(() -> {
+        IngestJob job = joinIngestJob(trackId, requesterId, targetId);
+        boolean[] created = { false };
+        CompletableFuture<MediaInfo> fetch = inFlightRequests.computeIfAbsent(trackId, key -> {
+            created[0] = true;
+            job.beginStage();
+            return fetchQueue.submit(requesterId, IngestQueue.Priority.PLAYBACK, () -> {
             try {
+                job.checkCancelled();
                 // 1. Fetch Metadata first
-                MediaInfo metadata = resolveMetadata(normalizedUrl, trackId);
+                JsonObject metadata = resolveMetadata(normalizedUrl, job);
 
-                // 2. Ensure the full audio is downloaded to storage
-                Path storedAudio = storagePath.resolve(trackId + ".ogg");
-                if (!Files.exists(storedAudio)) {
-                    downloadMedia(normalizedUrl, trackId);
+                // 2. Ensure the full audio is downloaded to storage (streaming ingest downloads
+                // while splitting during asset preparation instead)
+                Path storedAudio = resolveStoredAudio(trackId);
+                if (storedAudio == null && !isStreamingIngestEnabled()) {
+                    storedAudio = downloadMedia(normalizedUrl, trackId, job);
                 }
-                StoredSong stored = storedSongs.get(trackId);
-                if (stored == null) {
-                    storedSongs.put(trackId, new StoredSong(trackId, normalizedUrl, metadata.title, metadata.artist,
-                            metadata.duration, CURRENT_NORMALIZATION_VERSION));
+                StoredSong stored = rememberMetadata(trackId, normalizedUrl, metadata);
+                if (stored.audioFile == null && storedAudio != null) {
+                    stored.audioFile = storedAudio.getFileName().toString();
                     saveSongIndex();
                 }
-                String thumbnailAssetPath = ensureThumbnail(normalizedUrl, trackId);
-                return new MediaInfo(trackId, normalizedUrl, metadata.title, metadata.artist, metadata.thumbnailUrl,
-                        metadata.duration, 0, thumbnailAssetPath);
+                return toMediaInfo(stored, ensureThumbnail(normalizedUrl, trackId));
+            } catch (java.util.concurrent.CancellationException e) {
+                throw e;
             } catch (Exception e) {
                 String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
                 plugin.getLogger().at(Level.SEVERE).withCause(e).log("Failed to process media request: %s", message);
                 throw new RuntimeException(e);
             }
-        }).whenComplete((info, err) -> inFlightRequests.remove(trackId)));
+            }, onQueuePosition);
+        });
+        if (created[0]) {
+            // A request made after cancellation must start over instead of joining this one
+            job.onCancel(() -> inFlightRequests.remove(trackId, fetch));
+            fetch.whenComplete((info, err) -> {
+                inFlightRequests.remove(trackId, fetch);
+                finishStage(job);
+            });
+        }
+        return fetch;
+    }
+
+    /**
+     * Lets go of whatever a requester was waiting for on any target, e.g. when the player
+     * disconnects. Work nobody else is waiting for is cancelled.
+     */
+    public void releaseRequester(String requesterId) {
+        String prefix = requesterId + "|";
+        for (String holdKey : new java.util.ArrayList<>(requesterTracks.keySet())) {
+            if (!holdKey.startsWith(prefix)) {
+                continue;
+            }
+            String trackId = requesterTracks.remove(holdKey);
+            if (trackId != null) {
+                releaseIngestJob(trackId, holdKey);
+            }
+        }
+    }
+
+    /**
+     * The track's ingest job, held on behalf of a requester for one target. A requester
+     * holds one track per target, so joining another for the same target lets go of the
+     * previous one, while a track they started on another boombox keeps its ingest.
+     */
+    private IngestJob joinIngestJob(String trackId, String requesterId, String targetId) {
+        String holdKey = requesterId + "|" + targetId;
+        IngestJob job = ingestJobs.compute(trackId, (key, existing) -> existing != null && !existing.isCancelled()
+                ? existing
+                : new IngestJob(trackId, executors.registration()));
+        job.acquire(holdKey);
+        String previous = requesterTracks.put(holdKey, trackId);
+        if (previous != null && !previous.equals(trackId)) {
+            releaseIngestJob(previous, holdKey);
+        }
+        return job;
+    }
+
+    private void releaseIngestJob(String trackId, String holdKey) {
+        IngestJob job = ingestJobs.get(trackId);
+        if (job != null && job.release(holdKey)) {
+            cancelWhenIdle(job);
+        }
+    }
+
+    /**
+     * Cancels a job nobody holds. While its track is still playing somewhere, the session
+     * needs the chunks the ingest is producing, so it is checked again later instead.
+     */
+    private void cancelWhenIdle(IngestJob job) {
+        String trackId = job.getTrackId();
+        if (job.isHeld()) {
+            return;
+        }
+        if (!job.isRunning()) {
+            ingestJobs.remove(trackId, job);
+            return;
+        }
+        var playbackManager = plugin.getPlaybackManager();
+        if (playbackManager != null && playbackManager.isTrackActive(trackId)) {
+            executors.registration().schedule(() -> cancelWhenIdle(job), IDLE_JOB_CHECK_MS,
+                    java.util.concurrent.TimeUnit.MILLISECONDS);
+            return;
+        }
+        ingestJobs.remove(trackId, job);
+        if (job.cancel()) {
+            plugin.getLogger().at(Level.INFO).log("Cancelled ingest of %s; nobody is waiting for it any more", trackId);
+        }
+    }
+
+    private void finishStage(IngestJob job) {
+        if (job.endStage() && !job.isHeld()) {
+            ingestJobs.remove(job.getTrackId(), job);
+        }
+    }
+
+    /**
+     * A job for work nobody holds, such as warming and imports; it only enforces the
+     * stage timeouts and is never cancelled.
+     */
+    private IngestJob detachedJob(String label) {
+        return new IngestJob(label, executors.registration());
     }
 
-    private MediaInfo resolveMetadata(String url, String trackId) throws Exception {
+    private long metadataTimeoutMs() {
+        var config = plugin.getConfig();
+        return config != null ? config.getMetadataTimeoutSeconds() * 1000L : 0L;
+    }
+
+    private long downloadTimeoutMs() {
+        var config = plugin.getConfig();
+        return config != null ? config.getDownloadTimeoutMinutes() * 60_000L : 0L;
+    }
+
+    private long splitTimeoutMs() {
+        var config = plugin.getConfig();
+        return config != null ? config.getSplitTimeoutMinutes() * 60_000L : 0L;
+    }
+
+    /**
+     * Answers a request from the metadata stored with the song, without running yt-dlp.
+     * Metadata older than the configured TTL is still used, but refreshed in the
+     * background for the next request. Returns null when the song has no metadata yet,
+     * or when its audio has to be downloaded before playback can start.
+     */
+    private MediaInfo getCachedMediaInfo(String trackId) {
+        StoredSong stored = storedSongs.get(trackId);
+        if (stored == null || stored.title == null || stored.url == null) {
+            return null;
+        }
+        if (!isStreamingIngestEnabled() && resolveStoredAudio(trackId) == null) {
+            return null;
+        }
+        var config = plugin.getConfig();
+        long ttlMs = (config != null ? config.getMetadataCacheTtlHours() : 0) * 3_600_000L;
+        if (System.currentTimeMillis() - stored.metadataFetchedAt > ttlMs) {
+            refreshMetadataAsync(stored);
+        }
+        String thumbnailAssetPath = "";
+        if (hasThumbnail(trackId)) {
+            registerThumbnailAsset(trackId, thumbnailPath.resolve(trackId + ".png"), getThumbnailAssetPath(trackId));
+            thumbnailAssetPath = getThumbnailAssetPath(trackId);
+        }
+        return toMediaInfo(stored, thumbnailAssetPath);
+    }
+
+    private void refreshMetadataAsync(StoredSong stored) {
+        if (!metadataRefreshes.add(stored.trackId)) {
+            return;
+        }
+        fetchQueue.submit(BACKGROUND_REQUESTER, IngestQueue.Priority.BACKGROUND, () -> {
+            try {
+                rememberMetadata(stored.trackId, stored.url, resolveMetadata(stored.url, detachedJob(stored.trackId)));
+                if (!hasThumbnail(stored.trackId)) {
+                    ensureThumbnail(stored.url, stored.trackId);
+                }
+            } catch (Exception e) {
+                plugin.getLogger().at(Level.WARNING).withCause(e)
+                        .log("Failed to refresh metadata for %s; keeping the cached copy", stored.trackId);
+            } finally {
+                metadataRefreshes.remove(stored.trackId);
+            }
+            return null;
+        }, null);
+    }
+
+    /**
+     * Stores freshly fetched yt-dlp metadata on the song, creating its entry if needed.
+     */
+    private StoredSong rememberMetadata(String trackId, String url, JsonObject root) {
+        StoredSong stored = storedSongs.computeIfAbsent(trackId,
+                key -> new StoredSong(trackId, url, null, null, 0, CURRENT_NORMALIZATION_VERSION));
+        stored.title = metadataField(root, "title", "Unknown Title");
+        stored.artist = metadataField(root, "uploader", "Unknown Artist");
+        stored.thumbnailUrl = metadataField(root, "thumbnail", "");
+        String duration = metadataField(root, "duration", "");
+        stored.duration = duration.isEmpty() ? 0 : (long) Double.parseDouble(duration);
+        String id = metadataField(root, "id", "");
+        if (!id.isEmpty()) {
+            String extractor = metadataField(root, "extractor_key", "");
+            stored.canonicalId = extractor.isEmpty() ? id : extractor + ":" + id;
+        }
+        stored.metadataFetchedAt = System.currentTimeMillis();
+        saveSongIndex();
+        return stored;
+    }
+
+    /**
+     * Resolves metadata for many URLs in a single yt-dlp run that reads them from stdin,
+     * so a large library pays the interpreter startup once instead of per song. Each
+     * song is stored in the metadata cache and handed to {@code onResolved} as soon as
+     * yt-dlp prints it. URLs that fail are skipped. The future completes with the number
+     * of songs resolved.
+     */
+    public CompletableFuture<Integer> resolveMetadataBatch(java.util.Collection<String> urls,
+            java.util.function.Consumer<MediaInfo> onResolved) {
+        Map<String, String> trackIds = new java.util.LinkedHashMap<>();
+        for (String url : urls) {
+            if (url != null && !url.isEmpty()) {
+                String normalizedUrl = normalizeUrl(url);
+                trackIds.put(normalizedUrl, getTrackIdForUrl(normalizedUrl));
+            }
+        }
+        if (trackIds.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return fetchQueue.submit(BACKGROUND_REQUESTER, IngestQueue.Priority.BACKGROUND, () -> {
+            try {
+                return runMetadataBatch(trackIds, onResolved);
+            } catch (Exception e) {
+                plugin.getLogger().at(Level.WARNING).withCause(e)
+                        .log("Batch metadata resolution for %d URLs failed", trackIds.size());
+                throw new RuntimeException(e);
+            }
+        }, null);
+    }
+
+    private int runMetadataBatch(Map<String, String> trackIds, java.util.function.Consumer<MediaInfo> onResolved)
+            throws Exception {
         java.util.List<String> command = new java.util.ArrayList<>();
         command.add(requireYtDlpCommand());
-        command.add("--dump-json");
+        command.add("--print");
+        command.add(METADATA_PRINT_TEMPLATE);
+        command.add("--no-playlist");
+        command.add("--no-progress");
+        command.add("--quiet");
+        // One unavailable video must not end the run for the rest
+        command.add("--ignore-errors");
+        command.add("--batch-file");
+        command.add("-");
+        command.addAll(getYtDlpMetadataArgs());
+        Path errorLog = Files.createTempFile(tempPath, "metadata-batch-", ".log");
+        long started = System.nanoTime();
+        int resolved = 0;
+        try {
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectError(errorLog.toFile());
+            IngestJob job = detachedJob("metadata batch");
+            Process process;
+            try {
+                // The metadata limit applies per URL: every resolved entry starts it over
+                process = job.start(pb, "Batch metadata fetch", metadataTimeoutMs());
+            } catch (IOException e) {
+                throw new RuntimeException("yt-dlp not available for metadata fetch. Embedded yt-dlp failed to execute.",
+                        e);
+            }
+            // yt-dlp reads the whole batch file before it starts, so writing it all up front cannot block
+            try (Writer stdin = new java.io.OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8)) {
+                for (String url : trackIds.keySet()) {
+                    stdin.write(url);
+                    stdin.write('\n');
+                }
+            }
+            try (java.io.BufferedReader stdout = new java.io.BufferedReader(
+                    new java.io.InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = stdout.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    job.extendDeadline(process);
+                    JsonObject root;
+                    try {
+                        root = com.google.gson.JsonParser.parseString(line).getAsJsonObject();
+                    } catch (RuntimeException e) {
+                        plugin.getLogger().at(Level.WARNING).log("Skipping unparsable batch metadata line: %s", line);
+                        continue;
+                    }
+                    String url = metadataField(root, "original_url", "");
+                    String trackId = trackIds.get(url);
+                    if (trackId == null) {
+                        url = normalizeUrl(url);
+                        trackId = trackIds.get(url);
+                    }
+                    if (trackId == null) {
+                        continue;
+                    }
+                    StoredSong stored = rememberMetadata(trackId, url, root);
+                    resolved++;
+                    try {
+                        onResolved.accept(toMediaInfo(stored, ""));
+                    } catch (RuntimeException e) {
+                        plugin.getLogger().at(Level.WARNING).withCause(e)
+                                .log("Batch metadata callback failed for %s", trackId);
+                    }
+                }
+            }
+            int exitCode = job.waitFor(process);
+            if (resolved < trackIds.size()) {
+                plugin.getLogger().at(Level.WARNING).log("yt-dlp resolved %d of %d URLs in batch (exit code %d):%n%s",
+                        resolved, trackIds.size(), exitCode, Files.readString(errorLog));
+            }
+            plugin.getLogger().at(Level.INFO).log("Resolved metadata for %d URLs in one yt-dlp run in %.1f s",
+                    resolved, (System.nanoTime() - started) / 1e9);
+            return resolved;
+        } finally {
+            deleteFile(errorLog);
+        }
+    }
+
+    /**
+     * A field of the printed metadata; fields the extractor did not provide come back as null.
+     */
+    private static String metadataField(JsonObject root, String name, String fallback) {
+        var value = root.get(name);
+        return value != null && !value.isJsonNull() ? value.getAsString() : fallback;
+    }
+
+    private static MediaInfo toMediaInfo(StoredSong stored, String thumbnailAssetPath) {
+        return new MediaInfo(stored.trackId, stored.url, stored.title, stored.artist,
+                stored.thumbnailUrl != null ? stored.thumbnailUrl : "", stored.duration, 0, thumbnailAssetPath);
+    }
+
+    private JsonObject resolveMetadata(String url, IngestJob job) throws Exception {
+        java.util.List<String> command = new java.util.ArrayList<>();
+        command.add(requireYtDlpCommand());
+        command.add("--print");
+        command.add(METADATA_PRINT_TEMPLATE);
         command.add("--no-playlist");
         command.add("--no-progress");
         command.add("--quiet");
@@ -229,86 +735,340 @@ public class MediaManager {
             command.addAll(extraArgs);
         }
         command.add(url);
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.redirectErrorStream(true);
-
-        Process process;
+        // Warnings go to their own file so stdout holds nothing but the JSON
+        Path errorLog = Files.createTempFile(tempPath, "metadata-", ".log");
         try {
-            process = pb.start();
-        } catch (IOException e) {
-            throw new RuntimeException("yt-dlp not available for metadata fetch. Embedded yt-dlp failed to execute.", e);
-        }
-        StringBuilder jsonOutput = new StringBuilder();
-        try (java.util.Scanner s = new java.util.Scanner(process.getInputStream())) {
-            while (s.hasNextLine()) {
-                jsonOutput.append(s.nextLine()).append('\n');
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectError(errorLog.toFile());
+
+            Process process;
+            try {
+                process = job.start(pb, "Metadata fetch", metadataTimeoutMs());
+            } catch (IOException e) {
+                throw new RuntimeException("yt-dlp not available for metadata fetch. Embedded yt-dlp failed to execute.",
+                        e);
+            }
+            JsonObject root = null;
+            Exception parseFailure = null;
+            try (com.google.gson.stream.JsonReader reader = new com.google.gson.stream.JsonReader(
+                    new java.io.InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                reader.setLenient(true);
+                // Parsed straight off the pipe; the object is the only thing printed
+                root = com.google.gson.JsonParser.parseReader(reader).getAsJsonObject();
+            } catch (Exception e) {
+                parseFailure = e;
             }
+
+            int exitCode = job.waitFor(process);
+            if (exitCode != 0) {
+                String combined = Files.readString(errorLog);
+                if (combined.contains("HTTP Error 403") || combined.contains("403: Forbidden")
+                        || combined.contains("ERROR: Unable to download JSON metadata: HTTP Error 403")) {
+                    throw new RuntimeException(
+                            "yt-dlp received HTTP 403 (Forbidden). This can be caused by the specific URL, region/IP "
+                                    + "blocks, or the embedded yt-dlp being outdated. Try another URL to confirm. If it "
+                                    + "only fails on one song, the source is likely blocked. Otherwise update "
+                                    + "MediaRadio/media-tools or wait for an update. Report the URL and logs if it "
+                                    + "persists.");
+                }
+                throw new RuntimeException("yt-dlp metadata fetch failed code " + exitCode);
+            }
+            if (root == null) {
+                String stderr = Files.readString(errorLog);
+                String preview = stderr.length() > 4000 ? stderr.substring(0, 4000) + "...(truncated)" : stderr;
+                plugin.getLogger().at(Level.WARNING).withCause(parseFailure)
+                        .log("yt-dlp printed no metadata JSON. Its stderr (truncated): %s", preview);
+                throw new RuntimeException("yt-dlp printed no metadata for " + url, parseFailure);
+            }
+            return root;
+        } finally {
+            deleteFile(errorLog);
         }
+    }
 
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            String combined = jsonOutput.toString();
-            if (combined.contains("HTTP Error 403") || combined.contains("403: Forbidden")
-                    || combined.contains("ERROR: Unable to download JSON metadata: HTTP Error 403")) {
-                throw new RuntimeException(
-                        "yt-dlp received HTTP 403 (Forbidden). This can be caused by the specific URL, region/IP blocks, "
-                                + "or the embedded yt-dlp being outdated. Try another URL to confirm. If it only fails on "
-                                + "one song, the source is likely blocked. Otherwise update MediaRadio/media-tools or wait "
-                                + "for an update. Report the URL and logs if it persists.");
-            }
-            throw new RuntimeException("yt-dlp metadata fetch failed code " + exitCode);
-        }
-
-        String raw = jsonOutput.toString();
-        String extracted = extractJsonObject(raw);
-        com.google.gson.stream.JsonReader reader = new com.google.gson.stream.JsonReader(
-                new java.io.StringReader(extracted));
-        reader.setLenient(true);
-        JsonObject root;
+    /**
+     * Whether a URL names a playlist rather than a single track, in which case it is
+     * imported with {@link #importPlaylist} instead of played.
+     */
+    public boolean isPlaylistUrl(String url) {
+        if (url == null || url.isBlank()) {
+            return false;
+        }
         try {
-            root = com.google.gson.JsonParser.parseReader(reader).getAsJsonObject();
-        } catch (Exception e) {
-            String preview = raw.length() > 4000 ? raw.substring(0, 4000) + "...(truncated)" : raw;
-            plugin.getLogger().at(Level.WARNING).withCause(e)
-                    .log("yt-dlp metadata JSON parse failed. Raw output (truncated): %s", preview);
-            throw e;
+            URI uri = new URI(url.trim());
+            String host = uri.getHost();
+            if (host == null) {
+                return false;
+            }
+            String lowerHost = host.toLowerCase();
+            String path = uri.getPath() != null ? uri.getPath() : "";
+            if (lowerHost.contains("youtube.com")) {
+                return "/playlist".equals(path) && !getQueryParam(uri.getRawQuery(), "list").isEmpty();
+            }
+            if (lowerHost.contains("soundcloud.com")) {
+                return path.contains("/sets/");
+            }
+        } catch (Exception ignored) {
         }
-        String title = root.has("title") ? root.get("title").getAsString() : "Unknown Title";
-        String uploader = root.has("uploader") ? root.get("uploader").getAsString() : "Unknown Artist";
-        String thumbnail = root.has("thumbnail") ? root.get("thumbnail").getAsString() : "";
-        long duration = root.has("duration") ? root.get("duration").getAsLong() : 0;
+        return false;
+    }
+
+    /**
+     * Adds every entry of a playlist to a library and downloads them in the background,
+     * a few at a time and in playlist order. Entries appear as "Queued" right away and
+     * move through "Downloading..." to "Ready" or "Failed". Each library change is handed
+     * to {@code libraryUpdates}, which must run it where the library may be modified.
+     * The first few entries are also split and registered so they start instantly.
+     * Completes with the number of entries once they are all queued.
+     */
+    public CompletableFuture<Integer> importPlaylist(String ownerId, String playlistUrl,
+            java.util.function.Consumer<Runnable> libraryUpdates) {
+        var config = plugin.getConfig();
+        int maxEntries = config != null ? config.getMaxPlaylistEntries() : 0;
+        int prefetch = config != null ? config.getPlaylistPrefetchEntries() : 0;
+        return fetchQueue.submit(ownerId, IngestQueue.Priority.IMPORT, () -> {
+            try {
+                return listPlaylist(playlistUrl, maxEntries);
+            } catch (Exception e) {
+                plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to list playlist %s", playlistUrl);
+                throw new RuntimeException(e);
+            }
+        }, null).thenApply(listed -> {
+            java.util.List<PlaylistImporter.Entry> entries = new java.util.ArrayList<>(listed.size());
+            java.util.List<String> unresolved = new java.util.ArrayList<>();
+            for (MediaInfo info : listed) {
+                int index = entries.size();
+                entries.add(new PlaylistImporter.Entry(ownerId, info, index, index < prefetch, libraryUpdates));
+                libraryUpdates.accept(() -> updateImportedEntry(ownerId, info.url, "Queued", info));
+                StoredSong stored = storedSongs.get(info.trackId);
+                if (stored == null || stored.title == null) {
+                    unresolved.add(info.url);
+                }
+            }
+            plugin.getLogger().at(Level.INFO).log("Importing %d entries of playlist %s for %s",
+                    entries.size(), playlistUrl, ownerId);
+            playlistImporter.submit(entries);
+            // Thumbnails and full metadata for the whole playlist in one yt-dlp run,
+            // alongside the downloads
+            resolveMetadataBatch(unresolved, info -> ensureThumbnailAsync(info.url, info.trackId)
+                    .thenAccept(assetPath -> libraryUpdates.accept(() -> updateImportedEntry(ownerId, info.url, null,
+                            new MediaInfo(info.trackId, info.url, info.title, info.artist, info.thumbnailUrl,
+                                    info.duration, 0, assetPath != null ? assetPath : "")))));
+            return entries.size();
+        });
+    }
+
+    /**
+     * The entries of a playlist as listed by {@code --flat-playlist}, which reads the
+     * playlist pages only and none of the entries. Entries listed twice are kept once.
+     */
+    private java.util.List<MediaInfo> listPlaylist(String playlistUrl, int maxEntries) throws Exception {
+        java.util.List<String> command = new java.util.ArrayList<>();
+        command.add(requireYtDlpCommand());
+        command.add("--flat-playlist");
+        command.add("--print");
+        command.add(PLAYLIST_ENTRY_PRINT_TEMPLATE);
+        command.add("--no-progress");
+        command.add("--quiet");
+        // Private and deleted entries must not end the listing
+        command.add("--ignore-errors");
+        if (maxEntries > 0) {
+            command.add("--playlist-end");
+            command.add(String.valueOf(maxEntries));
+        }
+        command.addAll(getYtDlpMetadataArgs());
+        command.add(playlistUrl);
+        Path errorLog = Files.createTempFile(tempPath, "playlist-", ".log");
+        try {
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectError(errorLog.toFile());
+            IngestJob job = detachedJob("playlist");
+            Process process;
+            try {
+                process = job.start(pb, "Playlist listing", metadataTimeoutMs());
+            } catch (IOException e) {
+                throw new RuntimeException("yt-dlp not available for playlist listing. Embedded yt-dlp failed to execute.",
+                        e);
+            }
+            Map<String, MediaInfo> entries = new java.util.LinkedHashMap<>();
+            try (java.io.BufferedReader stdout = new java.io.BufferedReader(
+                    new java.io.InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = stdout.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    JsonObject root;
+                    try {
+                        root = com.google.gson.JsonParser.parseString(line).getAsJsonObject();
+                    } catch (RuntimeException e) {
+                        plugin.getLogger().at(Level.WARNING).log("Skipping unparsable playlist entry: %s", line);
+                        continue;
+                    }
+                    String url = normalizeUrl(metadataField(root, "url", ""));
+                    if (url.isEmpty()) {
+                        continue;
+                    }
+                    String trackId = getTrackIdForUrl(url);
+                    String duration = metadataField(root, "duration", "");
+                    entries.putIfAbsent(trackId, new MediaInfo(trackId, url,
+                            metadataField(root, "title", "Unknown Title"),
+                            metadataField(root, "uploader", metadataField(root, "channel", "Unknown Artist")),
+                            "", duration.isEmpty() ? 0 : (long) Double.parseDouble(duration), 0, ""));
+                }
+            }
+            int exitCode = job.waitFor(process);
+            if (entries.isEmpty()) {
+                if (exitCode != 0) {
+                    throw ytDlpFailure(Files.readString(errorLog), exitCode);
+                }
+                throw new RuntimeException("Playlist has no entries: " + playlistUrl);
+            }
+            return new java.util.ArrayList<>(entries.values());
+        } finally {
+            deleteFile(errorLog);
+        }
+    }
+
+    /**
+     * Downloads one playlist entry through the fetch queue and, for the first few, splits
+     * and registers it. Completes when the entry is done, either way; failures are
+     * reported on the entry.
+     */
+    private CompletableFuture<?> importPlaylistEntry(PlaylistImporter.Entry entry) {
+        MediaInfo listed = entry.listed();
+        return fetchImportedTrack(entry).thenCompose(info -> {
+            if (!entry.prefetch()) {
+                return CompletableFuture.completedFuture(info);
+            }
+            var config = plugin.getConfig();
+            int chunkDurationMs = config != null ? config.getChunkDurationMs() : 750;
+            float volumeDb = VolumeUtil.percentToEventDb(VolumeUtil.DEFAULT_PERCENT);
+            trackVolumes.putIfAbsent(info.trackId, volumeDb);
+            float trackVolumeDb = trackVolumes.get(info.trackId);
+            // Waits behind tracks somebody is about to hear
+            return prepareQueue.submit(entry.ownerId(), IngestQueue.Priority.IMPORT,
+                    () -> ensureRuntimeAssets(info, chunkDurationMs, trackVolumeDb, detachedJob(info.trackId)),
+                    null).thenApply(chunkCount -> {
+                        if (chunkCount <= 0) {
+                            throw new RuntimeException("Failed to prepare media assets (0 chunks)");
+                        }
+                        return info;
+                    });
+        }).whenComplete((info, error) -> {
+            if (error == null) {
+                entry.libraryUpdates().accept(() -> updateImportedEntry(entry.ownerId(), listed.url, "Ready", info));
+                return;
+            }
+            plugin.getLogger().at(Level.WARNING).withCause(error).log("Failed to import playlist entry %s",
+                    listed.url);
+            entry.libraryUpdates().accept(() -> updateImportedEntry(entry.ownerId(), listed.url, "Failed", null));
+        });
+    }
 
-        return new MediaInfo(trackId, url, title, uploader, thumbnail, duration, 0, "");
+    /**
+     * Stores a playlist entry's audio. The download waits in the fetch queue behind
+     * playback requests and takes turns with other players' imports; while it waits, the
+     * entry shows its place in line. Meanwhile the entry counts as an in-flight request,
+     * so somebody requesting it waits for this download instead of starting another; if a
+     * request got there first, that one is joined.
+     */
+    private CompletableFuture<MediaInfo> fetchImportedTrack(PlaylistImporter.Entry entry) {
+        MediaInfo listed = entry.listed();
+        String trackId = listed.trackId;
+        CompletableFuture<MediaInfo> fetch = new CompletableFuture<>();
+        CompletableFuture<MediaInfo> running = inFlightRequests.putIfAbsent(trackId, fetch);
+        if (running != null) {
+            return running;
+        }
+        fetchQueue.submit(entry.ownerId(), IngestQueue.Priority.IMPORT, () -> {
+            entry.libraryUpdates().accept(
+                    () -> updateImportedEntry(entry.ownerId(), listed.url, "Downloading...", null));
+            try {
+                if (resolveStoredAudio(trackId) == null) {
+                    recordStoredAudio(trackId, downloadMedia(listed.url, trackId, detachedJob(trackId)));
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            // Full metadata once the batch run has resolved it; the flat listing until then
+            StoredSong stored = storedSongs.get(trackId);
+            String thumbnailAssetPath = hasThumbnail(trackId) ? getThumbnailAssetPath(trackId) : "";
+            return stored != null && stored.title != null ? toMediaInfo(stored, thumbnailAssetPath) : listed;
+        }, position -> {
+            MediaLibrary library = plugin.getMediaLibrary();
+            if (position > 0 && library != null) {
+                entry.libraryUpdates().accept(
+                        () -> library.setTransientStatus(entry.ownerId(), listed.url, "Queued (#" + position + ")"));
+            }
+        }).whenComplete((info, error) -> {
+            if (error != null) {
+                fetch.completeExceptionally(error);
+            } else {
+                fetch.complete(info);
+            }
+            inFlightRequests.remove(trackId, fetch);
+        });
+        return fetch;
     }
 
-    private String extractJsonObject(String raw) {
-        if (raw == null) {
-            return "{}";
+    /**
+     * Sets an imported entry's status and whatever metadata is known. A null status
+     * keeps the current one.
+     */
+    private void updateImportedEntry(String ownerId, String url, String status, MediaInfo info) {
+        MediaLibrary library = plugin.getMediaLibrary();
+        if (library == null) {
+            return;
+        }
+        if (status == null) {
+            for (MediaLibrary.SavedSong song : library.getSongsForPlayer(ownerId)) {
+                if (url.equals(song.url)) {
+                    status = song.status;
+                }
+            }
+            if (status == null) {
+                return;
+            }
         }
-        int start = raw.indexOf('{');
-        int end = raw.lastIndexOf('}');
-        if (start >= 0 && end > start) {
-            return raw.substring(start, end + 1).trim();
+        if (info == null) {
+            library.upsertSongStatus(ownerId, url, status, null, null, null, 0, null, null);
+            return;
         }
-        return raw.trim();
+        library.upsertSongStatus(ownerId, url, status, info.title, info.artist,
+                info.thumbnailUrl == null || info.thumbnailUrl.isEmpty() ? null : info.thumbnailUrl, info.duration,
+                info.trackId,
+                info.thumbnailAssetPath == null || info.thumbnailAssetPath.isEmpty() ? null : info.thumbnailAssetPath);
     }
 
-    private void downloadMedia(String url, String trackId) throws Exception {
-        // Don't include extension in -o template - yt-dlp adds it automatically with
-        // --audio-format
-        Path outputPathBase = storagePath.resolve(trackId);
-        Path outputPathBaseOgg = storagePath.resolve(trackId + ".ogg");
-        Path expectedOutputPath = storagePath.resolve(trackId + ".ogg");
+    /**
+     * Stops background work that would otherwise outlive the plugin.
+     */
+    public void shutdown() {
+        playlistImporter.shutdown();
+        executors.shutdown();
+        // A scheduled save does not run once the pool is shut down
+        if (songIndexSaveScheduled.getAndSet(false)) {
+            saveSongIndex();
+        }
+        mappedFiles.releaseAll();
+    }
+
+    /**
+     * Downloads the source's best audio stream and stores it as-is. The only decode and
+     * encode happens later in the segmenter, so the stored file is never transcoded.
+     * Returns the stored file, whose extension depends on the source codec.
+     */
+    private Path downloadMedia(String url, String trackId, IngestJob job) throws Exception {
+        Path outputTemplate = storagePath.resolve(trackId + ".%(ext)s");
 
-        // Command: yt-dlp -x --audio-format vorbis --audio-quality 0 -o "trackId" "url"
-        // yt-dlp will create "trackId.ogg" after audio extraction
+        // Command: yt-dlp -f bestaudio/best -x -o "trackId.%(ext)s" "url"
+        // Without --audio-format, -x only remuxes the audio stream (opus, m4a, ...)
         java.util.List<String> command = new java.util.ArrayList<>();
         command.add(requireYtDlpCommand());
+        command.add("-f");
+        command.add("bestaudio/best");
         command.add("-x");
-        command.add("--audio-format");
-        command.add("vorbis");
-        command.add("--audio-quality");
-        command.add("0");
 
         Path ffmpegLocation = mediaTools.getFfmpegLocationForYtDlp();
         if (ffmpegLocation != null) {
@@ -317,7 +1077,7 @@ public class MediaManager {
         }
 
         command.add("-o");
-        command.add(outputPathBase.toString());
+        command.add(outputTemplate.toString());
         java.util.List<String> extraArgs = getYtDlpArgs();
         if (!extraArgs.isEmpty()) {
             command.addAll(extraArgs);
@@ -331,10 +1091,19 @@ public class MediaManager {
         pb.redirectErrorStream(true);
         Process process;
         try {
-            process = pb.start();
+            process = job.start(pb, "Download", downloadTimeoutMs());
         } catch (IOException e) {
             throw new RuntimeException("yt-dlp not available for media download. Embedded yt-dlp failed to execute.", e);
         }
+        try {
+            return awaitDownload(process, trackId, job);
+        } catch (Exception e) {
+            deletePartialDownload(trackId);
+            throw e;
+        }
+    }
+
+    private Path awaitDownload(Process process, String trackId, IngestJob job) throws Exception {
 
         StringBuilder output = new StringBuilder();
         // Read output to log
@@ -346,94 +1115,521 @@ public class MediaManager {
             }
         }
 
-        int exitCode = process.waitFor();
+        int exitCode = job.waitFor(process);
         if (exitCode != 0) {
-            String combined = output.toString();
-            if (combined.contains("HTTP Error 403") || combined.contains("403: Forbidden")) {
-                throw new RuntimeException(
-                        "yt-dlp received HTTP 403 (Forbidden). This can be caused by the specific URL, region/IP blocks, "
-                                + "or the embedded yt-dlp being outdated. Try another URL to confirm. If it only fails on "
-                                + "one song, the source is likely blocked. Otherwise update MediaRadio/media-tools or wait "
-                                + "for an update. Report the URL and logs if it persists.");
+            throw ytDlpFailure(output.toString(), exitCode);
+        }
+
+        Path storedAudio = resolveStoredAudio(trackId);
+        if (storedAudio == null) {
+            throw new RuntimeException("Output file not found for " + trackId + " in " + storagePath);
+        }
+        songStorage.scheduleEnforce();
+        return storedAudio;
+    }
+
+    /**
+     * Deletes what a failed or cancelled download left behind: yt-dlp's .part and
+     * fragment files and its resume state. Finished audio files are left alone.
+     */
+    private void deletePartialDownload(String trackId) {
+        String streamedPart = trackId + "." + STREAMED_AUDIO_EXTENSION + ".part";
+        try (java.util.stream.Stream<Path> files = Files.list(storagePath)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                // A streaming ingest writes its own .part file and cleans it up itself
+                return name.startsWith(trackId + ".") && !name.equals(streamedPart)
+                        && (name.contains(".part") || name.endsWith(".ytdl") || name.contains(".temp."));
+            }).forEach(this::deleteFile);
+        } catch (IOException e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to clean up partial download of %s", trackId);
+        }
+    }
+
+    /**
+     * The stored audio file of a track, or null if it is not stored. The file name is
+     * recorded on the {@link StoredSong}; files stored before that are found by extension.
+     */
+    private Path resolveStoredAudio(String trackId) {
+        StoredSong stored = storedSongs.get(trackId);
+        if (stored != null && stored.audioFile != null) {
+            Path recorded = storagePath.resolve(stored.audioFile);
+            if (Files.exists(recorded)) {
+                return recorded;
             }
-            throw new RuntimeException("yt-dlp exited with code " + exitCode);
         }
+        for (String extension : STORED_AUDIO_EXTENSIONS) {
+            Path candidate = storagePath.resolve(trackId + "." + extension);
+            if (Files.exists(candidate)) {
+                recordStoredAudio(trackId, candidate);
+                return candidate;
+            }
+        }
+        return null;
+    }
 
-        // yt-dlp creates <name>.ogg when using --audio-format vorbis
-        if (!Files.exists(expectedOutputPath)) {
-            throw new RuntimeException("Output file not found: " + expectedOutputPath);
+    private void recordStoredAudio(String trackId, Path audio) {
+        StoredSong stored = storedSongs.get(trackId);
+        String fileName = audio.getFileName().toString();
+        if (stored != null && !fileName.equals(stored.audioFile)) {
+            stored.audioFile = fileName;
+            // Measured on another file; the next split measures again
+            stored.loudness = null;
+            saveSongIndex();
+        }
+    }
+
+    private RuntimeException ytDlpFailure(String output, int exitCode) {
+        if (output.contains("HTTP Error 403") || output.contains("403: Forbidden")) {
+            return new RuntimeException(
+                    "yt-dlp received HTTP 403 (Forbidden). This can be caused by the specific URL, region/IP blocks, "
+                            + "or the embedded yt-dlp being outdated. Try another URL to confirm. If it only fails on "
+                            + "one song, the source is likely blocked. Otherwise update MediaRadio/media-tools or wait "
+                            + "for an update. Report the URL and logs if it persists.");
+        }
+        return new RuntimeException("yt-dlp exited with code " + exitCode);
+    }
+
+    private int streamRuntimeAssets(MediaInfo mediaInfo, ChunkDurationPolicy.Decision plan, float volumeDb,
+            IngestJob job) {
+        String trackId = mediaInfo.trackId;
+        StreamingIngest[] created = new StreamingIngest[1];
+        StreamingIngest ingest = streamingIngests.computeIfAbsent(trackId,
+                key -> created[0] = createStreamingIngest(mediaInfo, plan, volumeDb, job));
+        if (created[0] != null) {
+            // Started outside computeIfAbsent so a fast failure cannot race the map insert
+            created[0].start(executors.ingest(), executors.splitOutput());
+        }
+        try {
+            return ingest.getPlayable().join();
+        } catch (Exception e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e)
+                    .log("Failed to stream runtime assets for %s", trackId);
+            return 0;
         }
     }
 
-    private int splitAudio(String trackId, double segmentDuration) throws Exception {
-        Path inputFile = storagePath.resolve(trackId + ".ogg");
-        // Output pattern: trackId_Chunk_000.ogg
-        String outputPattern = commonAudioPath.resolve(trackId + "_Chunk_%03d.ogg").toString();
+    /**
+     * Builds the chunk ingest for a track. Tracks that are not stored yet are streamed
+     * through a yt-dlp -> ffmpeg pipeline, stored tracks are split straight from disk.
+     * Either way the playable future completes as soon as the first chunks are registered
+     * and the track model exists, while the rest keeps ingesting in the background.
+     */
+    private StreamingIngest createStreamingIngest(MediaInfo mediaInfo, ChunkDurationPolicy.Decision plan,
+            float volumeDb, IngestJob job) {
+        String trackId = mediaInfo.trackId;
+        ChunkLayout layout = plan.layout();
+        long durationMs = mediaInfo.duration * 1000L;
+        // Without a known duration we cannot size the track model up front, so wait for the full ingest.
+        int estimatedChunks = layout.chunkCount(durationMs);
+        Path existingAudio = resolveStoredAudio(trackId);
+        boolean download = existingAudio == null;
+        Path storedAudio = download ? storagePath.resolve(trackId + "." + STREAMED_AUDIO_EXTENSION) : existingAudio;
+        Path partialAudio = download ? storagePath.resolve(trackId + "." + STREAMED_AUDIO_EXTENSION + ".part") : null;
+        CompletableFuture<Integer> playable = new CompletableFuture<>();
+        // Parallel workers report out of order; playback needs the chunks from the start
+        java.util.BitSet ready = new java.util.BitSet();
+        String[] loudnorm = { LOUDNORM_FILTER };
+        // Without a stored measurement the first split measures loudness as it goes
+        LoudnessMeasurement knownLoudness = download ? null : getStoredLoudness(trackId);
+        Path loudnessLog = knownLoudness == null ? storagePath.resolve(trackId + ".loudness.log") : null;
+
+        StreamingIngest.SplitPlanner planner = download
+                ? () -> java.util.List.of(StreamingIngest.SplitRange.whole(
+                        buildSplitCommand(trackId, "pipe:0", partialAudio, layout, durationMs,
+                                LOUDNORM_FILTER + LOUDNORM_REPORT, 0, Integer.MAX_VALUE)))
+                : () -> planStoredSplit(trackId, storedAudio, durationMs, layout, loudnorm, job);
+        // Runs after planStoredSplit, so it reuses the loudness that settled on
+        StreamingIngest.SplitPlanner fallbackPlanner = download ? null : () -> {
+            plugin.getLogger().at(Level.WARNING)
+                    .log("Parallel split of %s did not line up; splitting it with one ffmpeg worker", trackId);
+            return java.util.List.of(StreamingIngest.SplitRange.whole(
+                    buildSplitCommand(trackId, storedAudio.toString(), null, layout, durationMs, loudnorm[0],
+                            0, Integer.MAX_VALUE)));
+        };
+
+        StreamingIngest ingest = new StreamingIngest(
+                trackId,
+                download ? buildStreamingYtDlpCommand(mediaInfo.url) : null,
+                planner,
+                fallbackPlanner,
+                storagePath.resolve(trackId + ".ingest.log"),
+                loudnessLog,
+                this::ytDlpFailure,
+                job,
+                // Streaming is bound by the download, splitting a stored file by ffmpeg
+                download ? downloadTimeoutMs() : splitTimeoutMs(),
+                playable,
+                segments -> {
+                    int start = segments.get(0).index();
+                    int end = segments.get(segments.size() - 1).index() + 1;
+                    if (playable.isDone()) {
+                        // Playback is running; let the queue order the rest around the playheads
+                        registrationQueue.enqueue(trackId, start, end, volumeDb);
+                    } else {
+                        registrationQueue.registerNow(trackId, start, end, volumeDb);
+                    }
+                    ready.set(start, end);
+                    if (!playable.isDone() && estimatedChunks > 0
+                            && ready.nextClearBit(0) >= Math.min(STREAM_START_CHUNKS, estimatedChunks)) {
+                        createTrackModel(trackId, estimatedChunks);
+                        playable.complete(estimatedChunks);
+                    }
+                });
 
-        plugin.getLogger().at(Level.INFO).log("Splitting audio %s into %.1fms chunks...", trackId,
-                segmentDuration * 1000.0);
+        ingestLayouts.put(trackId, layout);
+        // ffmpeg truncates chunk files it writes again; a mapping must not see that
+        releaseMappedChunks(trackId);
+        job.beginStage();
+        // A new request after cancellation starts a fresh ingest instead of joining this one
+        job.onCancel(() -> streamingIngests.remove(trackId, ingest));
+        ingest.getCompletion().whenComplete((chunkCount, err) -> {
+            streamingIngests.remove(trackId, ingest);
+            finishStage(job);
+            if (err != null || chunkCount == null || chunkCount <= 0) {
+                ingestLayouts.remove(trackId, layout);
+                if (loudnessLog != null) {
+                    deleteFile(loudnessLog);
+                }
+                if (partialAudio != null) {
+                    deleteFile(partialAudio);
+                }
+                Throwable cause = err != null ? err : new RuntimeException("Chunk ingest produced no chunks");
+                boolean beforePlayback = playable.completeExceptionally(cause);
+                if (!beforePlayback) {
+                    plugin.getLogger().at(Level.WARNING).withCause(cause)
+                            .log("Chunk ingest for %s failed after playback started", trackId);
+                }
+                // The chunks written so far have no manifest and would never be used
+                if (beforePlayback || job.isCancelled()) {
+                    cleanupRuntimeAssets(trackId);
+                }
+                return;
+            }
+            if (partialAudio != null) {
+                try {
+                    Files.move(partialAudio, storedAudio, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+                    recordStoredAudio(trackId, storedAudio);
+                    songStorage.scheduleEnforce();
+                } catch (IOException e) {
+                    plugin.getLogger().at(Level.WARNING).withCause(e)
+                            .log("Failed to store streamed audio for %s", trackId);
+                }
+            }
+            if (loudnessLog != null) {
+                captureLoudness(trackId, loudnessLog);
+            }
+            ChunkTimeline timeline = ChunkTimeline.planned(layout, chunkCount);
+            try {
+                timeline = ChunkTimeline.of(chunkCache.put(trackId, plan, CURRENT_NORMALIZATION_VERSION,
+                        CHUNK_ENCODER + loudnorm[0], ingest.getSegments()));
+            } catch (IOException e) {
+                plugin.getLogger().at(Level.WARNING).withCause(e)
+                        .log("Failed to write chunk manifest for %s; it will be split again next time", trackId);
+            }
+            ingestLayouts.remove(trackId, layout);
+            plugin.getLogger().at(Level.INFO).log("Chunk ingest complete for %s: %d chunks, %s", trackId, chunkCount,
+                    plan.reason());
+            if (playable.complete(chunkCount)) {
+                createTrackModel(trackId, chunkCount);
+                return;
+            }
+            if (chunkCount != estimatedChunks) {
+                createTrackModel(trackId, chunkCount);
+            }
+            // Sessions started on the planned layout; move them onto ffmpeg's real boundaries
+            var playbackManager = plugin.getPlaybackManager();
+            if (playbackManager != null) {
+                playbackManager.updateTrackTimeline(trackId, timeline);
+            }
+        });
 
-        String ffmpegCommand = requireFfmpegCommand();
+        plugin.getLogger().at(Level.INFO).log("Chunk ingest started for %s (%s, ~%d chunks)", trackId,
+                download ? "streaming" : "stored", estimatedChunks);
+        return ingest;
+    }
 
-        ProcessBuilder pb = new ProcessBuilder(
-                ffmpegCommand,
-                "-i", inputFile.toString(),
-                "-af", "loudnorm=I=-16:TP=-1.5:LRA=11",
+    private java.util.List<String> buildStreamingYtDlpCommand(String url) {
+        java.util.List<String> command = new java.util.ArrayList<>();
+        command.add(requireYtDlpCommand());
+        command.add("-f");
+        command.add("bestaudio/best");
+        command.add("--no-playlist");
+        command.add("--no-progress");
+        command.add("--quiet");
+        command.add("-o");
+        command.add("-");
+        command.addAll(getYtDlpArgs());
+        command.add(url);
+        return command;
+    }
+
+    /**
+     * Splits a stored track. Long tracks are cut into time ranges that several ffmpeg
+     * workers segment at once, within the configured core budget. Each worker covers a
+     * whole number of chunks and numbers its files from its first chunk, so the result is
+     * identical to a single segmenter. Head chunks get a short range of their own, so
+     * the rest is cut at a fixed segment time however long the file really is. loudnorm
+     * can only normalize a piece consistently with the rest when it is given the whole
+     * track's loudness, so every worker runs the linear second pass on the measurement
+     * stored for the file, measuring it first if there is none yet. A single worker
+     * without a measurement runs the one-pass filter over the whole file and reports the
+     * measurement on the way for the next split.
+     */
+    private java.util.List<StreamingIngest.SplitRange> planStoredSplit(String trackId, Path storedAudio,
+            long durationMs, ChunkLayout layout, String[] loudnorm, IngestJob job) {
+        String input = storedAudio.toString();
+        int totalChunks = layout.chunkCount(durationMs);
+        int workers = (int) Math.max(1, Math.min(getSplitCoreBudget(),
+                Math.floor(durationMs / 1000.0 / PARALLEL_SPLIT_MIN_RANGE_SECONDS)));
+        LoudnessMeasurement measurement = getStoredLoudness(trackId);
+        if (measurement == null && workers > 1) {
+            measurement = measureLoudness(storedAudio, job);
+            if (measurement != null) {
+                storeLoudness(trackId, measurement);
+            }
+        }
+        if (measurement == null) {
+            return java.util.List.of(StreamingIngest.SplitRange.whole(
+                    buildSplitCommand(trackId, input, null, layout, durationMs, LOUDNORM_FILTER + LOUDNORM_REPORT,
+                            0, Integer.MAX_VALUE)));
+        }
+        loudnorm[0] = measurement.toLinearFilter(LOUDNORM_FILTER);
+        int head = layout.headChunkCount();
+        if ((workers == 1 && head == 0) || totalChunks <= head) {
+            return java.util.List.of(StreamingIngest.SplitRange.whole(
+                    buildSplitCommand(trackId, input, null, layout, durationMs, loudnorm[0], 0, Integer.MAX_VALUE)));
+        }
+
+        int chunksPerWorker = (int) Math.ceil((totalChunks - head) / (double) workers);
+        java.util.List<StreamingIngest.SplitRange> ranges = new java.util.ArrayList<>(workers + 1);
+        if (head > 0) {
+            ranges.add(new StreamingIngest.SplitRange(
+                    buildSplitCommand(trackId, input, null, layout, durationMs, loudnorm[0], 0, head),
+                    0, head, 0.0));
+        }
+        for (int first = head; first < totalChunks; first += chunksPerWorker) {
+            // The last worker runs to the end of the file in case the reported duration is short
+            boolean last = first + chunksPerWorker >= totalChunks;
+            ranges.add(new StreamingIngest.SplitRange(
+                    buildSplitCommand(trackId, input, null, layout, durationMs, loudnorm[0], first,
+                            last ? Integer.MAX_VALUE : first + chunksPerWorker),
+                    first,
+                    last ? Integer.MAX_VALUE : chunksPerWorker,
+                    layout.startMs(first) / 1000.0));
+        }
+        plugin.getLogger().at(Level.INFO).log("Splitting %s with %d ffmpeg workers (%d head chunks, %d chunks each)",
+                trackId, ranges.size(), head, chunksPerWorker);
+        return ranges;
+    }
+
+    /**
+     * loudnorm first pass over the whole file. Decodes only, so it is much cheaper than
+     * the split itself. Returns null if ffmpeg fails or reports no usable measurement.
+     */
+    private LoudnessMeasurement measureLoudness(Path audio, IngestJob job) {
+        java.util.List<String> command = java.util.List.of(
+                requireFfmpegCommand(),
+                "-nostdin",
+                "-hide_banner",
+                "-nostats",
+                "-i", audio.toString(),
                 "-map", "0:a:0",
-                "-f", "segment",
-                "-segment_time", String.valueOf(segmentDuration),
-                "-reset_timestamps", "1",
-                "-ac", "1",
-                "-c:a", "libvorbis",
-                "-q:a", "4",
-                outputPattern);
-
+                "-af", LOUDNORM_FILTER + ":print_format=json",
+                "-f", "null",
+                "-");
+        ProcessBuilder pb = new ProcessBuilder(command);
         pb.redirectErrorStream(true);
-        Process process;
         try {
-            process = pb.start();
-        } catch (IOException e) {
-            throw new RuntimeException("ffmpeg not available for audio split. Embedded ffmpeg failed to execute.", e);
-        }
-
-        // Read output
-        try (java.util.Scanner s = new java.util.Scanner(process.getInputStream()).useDelimiter("\\A")) {
-            while (s.hasNext()) {
-                // plugin.getLogger().at(Level.INFO).log("[ffmpeg] %s", s.next()); // Too noisy
-                s.next();
+            Process process = job.start(pb, "Loudness measurement", splitTimeoutMs());
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            int exitCode = job.waitFor(process);
+            if (exitCode != 0) {
+                plugin.getLogger().at(Level.WARNING).log("Loudness measurement failed for %s (exit %d)", audio, exitCode);
+                return null;
             }
+            return LoudnessMeasurement.parse(output);
+        } catch (IOException e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Loudness measurement failed for %s", audio);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
         }
+    }
 
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            throw new RuntimeException("ffmpeg exited with code " + exitCode);
+    /**
+     * The loudness stored for a track's audio file, if it was measured against the
+     * current target.
+     */
+    private LoudnessMeasurement getStoredLoudness(String trackId) {
+        StoredSong stored = storedSongs.get(trackId);
+        if (stored == null || stored.loudness == null || !LOUDNORM_FILTER.equals(stored.loudnessTarget)) {
+            return null;
         }
+        return stored.loudness;
+    }
 
-        // Count generated chunks
-        int chunkCount = 0;
-        while (Files.exists(commonAudioPath.resolve(String.format("%s_Chunk_%03d.ogg", trackId, chunkCount)))) {
-            Path chunkPath = commonAudioPath.resolve(String.format("%s_Chunk_%03d.ogg", trackId, chunkCount));
-            // Touch file to trigger watcher
-            try {
-                Files.setLastModifiedTime(chunkPath,
-                        java.nio.file.attribute.FileTime.fromMillis(System.currentTimeMillis()));
-            } catch (IOException ignored) {
-            }
-            chunkCount++;
+    private void storeLoudness(String trackId, LoudnessMeasurement measurement) {
+        StoredSong stored = storedSongs.get(trackId);
+        if (stored == null) {
+            return;
         }
+        stored.loudness = measurement;
+        stored.loudnessTarget = LOUDNORM_FILTER;
+        saveSongIndex();
+    }
 
-        // Touch directory too
+    /**
+     * Reads the measurement a one-pass split printed to its log and stores it.
+     */
+    private void captureLoudness(String trackId, Path loudnessLog) {
         try {
-            Files.setLastModifiedTime(commonAudioPath,
-                    java.nio.file.attribute.FileTime.fromMillis(System.currentTimeMillis()));
-        } catch (IOException ignored) {
+            if (getStoredLoudness(trackId) == null && Files.exists(loudnessLog)) {
+                LoudnessMeasurement measurement = LoudnessMeasurement.parse(
+                        Files.readString(loudnessLog, StandardCharsets.UTF_8));
+                if (measurement != null) {
+                    storeLoudness(trackId, measurement);
+                    plugin.getLogger().at(Level.INFO).log("Stored loudness for %s: %.1f LUFS", trackId,
+                            measurement.inputI);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to read loudness log for %s", trackId);
+        } finally {
+            deleteFile(loudnessLog);
+        }
+    }
+
+    private int getSplitCoreBudget() {
+        return plugin.getConfig() != null ? plugin.getConfig().getSplitCoreBudget() : 1;
+    }
+
+    /**
+     * ffmpeg segmenter command for chunks {@code [firstChunk, endChunk)} of the layout,
+     * or from {@code firstChunk} to the end of the input when {@code endChunk} is
+     * {@link Integer#MAX_VALUE}. The segment list goes to stdout so every chunk can be
+     * registered the moment ffmpeg closes it. When {@code storedCopy} is set, the same
+     * process also copies the streamed source's audio into the stored file untouched.
+     */
+    private java.util.List<String> buildSplitCommand(String trackId, String input, Path storedCopy,
+            ChunkLayout layout, long durationMs, String loudnormFilter, int firstChunk, int endChunk) {
+        double rangeStart = layout.startMs(firstChunk) / 1000.0;
+        double rangeLength = endChunk == Integer.MAX_VALUE
+                ? 0
+                : (layout.startMs(endChunk) - layout.startMs(firstChunk)) / 1000.0;
+        String outputPattern = chunkCache.getCacheDir().resolve(trackId + "_Chunk_%03d.ogg").toString();
+        java.util.List<String> command = new java.util.ArrayList<>();
+        command.add(requireFfmpegCommand());
+        // Never read keyboard commands from stdin; in a pipeline stdin is yt-dlp's output
+        command.add("-nostdin");
+        command.add("-hide_banner");
+        command.add("-nostats");
+        if (rangeStart > 0) {
+            command.add("-ss");
+            command.add(String.valueOf(rangeStart));
+        }
+        if (rangeLength > 0) {
+            command.add("-t");
+            command.add(String.valueOf(rangeLength));
+        }
+        command.add("-i");
+        command.add(input);
+        if (storedCopy != null) {
+            // Stream copy: Matroska holds opus, aac and vorbis alike, so no codec needs a transcode
+            command.addAll(java.util.List.of(
+                    "-map", "0:a:0",
+                    "-c:a", "copy",
+                    "-f", "matroska",
+                    "-y", storedCopy.toString()));
+        }
+        command.addAll(java.util.List.of(
+                "-map", "0:a:0",
+                "-af", loudnormFilter,
+                "-f", "segment"));
+        command.addAll(segmentTimingArgs(layout, durationMs, firstChunk, endChunk));
+        command.addAll(java.util.List.of(
+                "-segment_start_number", String.valueOf(firstChunk),
+                "-segment_list", "pipe:1",
+                "-segment_list_type", "csv",
+                "-reset_timestamps", "1",
+                "-ac", "1",
+                "-c:a", "libvorbis",
+                "-q:a", "4",
+                outputPattern));
+        return command;
+    }
+
+    /**
+     * Where the segmenter cuts. Ranges past the head use a fixed segment time; a range
+     * with head chunks lists every split point relative to its start, since ffmpeg takes
+     * either one or the other and stops splitting once the list runs out. Stored splits
+     * give the head a range of its own; a single segmenter over the whole track, as in a
+     * streamed ingest, lists points up to twice the reported duration.
+     */
+    private java.util.List<String> segmentTimingArgs(ChunkLayout layout, long durationMs, int firstChunk,
+            int endChunk) {
+        int last = endChunk != Integer.MAX_VALUE
+                ? endChunk
+                : Math.min(MAX_SEGMENT_SPLIT_POINTS + 1, Math.max(layout.chunkCount(durationMs + SPLIT_POINT_SLACK_MS),
+                        layout.chunkCount(durationMs * 2)));
+        if (firstChunk >= layout.headChunkCount() || last <= firstChunk + 1) {
+            return java.util.List.of("-segment_time", String.valueOf(layout.durationMs(firstChunk) / 1000.0));
+        }
+        long base = layout.startMs(firstChunk);
+        java.util.StringJoiner points = new java.util.StringJoiner(",");
+        for (int i = firstChunk + 1; i < last; i++) {
+            points.add(String.valueOf((layout.startMs(i) - base) / 1000.0));
+        }
+        return java.util.List.of("-segment_times", points.toString());
+    }
+
+    /**
+     * The chunk layout for a track: the configured head chunks in front of chunks of
+     * {@code chunkDurationMs}, lengthened by {@link ChunkDurationPolicy} for long tracks.
+     * A track that will be streamed is cut by a single segmenter, so it keeps the head
+     * only as long as ffmpeg can be given all split points; a stored track splits its
+     * head separately and always keeps it.
+     */
+    private ChunkDurationPolicy.Decision resolveChunkPlan(String trackId, int chunkDurationMs, long durationMs) {
+        var config = plugin.getConfig();
+        ChunkLayout requested = config != null
+                ? new ChunkLayout(config.getHeadChunkCount(), config.getHeadChunkDurationMs(), chunkDurationMs)
+                : ChunkLayout.uniform(chunkDurationMs);
+        ChunkDurationPolicy policy = config != null
+                ? new ChunkDurationPolicy(config.getMaxChunksPerTrack(), config.getMaxChunkDurationMs())
+                : new ChunkDurationPolicy(0, 0);
+        ChunkDurationPolicy.Decision decision = policy.choose(requested, durationMs);
+        // Without a duration there is no split plan to put a head range into
+        if (durationMs > 0 && (resolveStoredAudio(trackId) != null || !isStreamingIngestEnabled())) {
+            return decision;
+        }
+        return new ChunkDurationPolicy.Decision(decision.layout().fitting(durationMs, MAX_SEGMENT_SPLIT_POINTS),
+                decision.reason());
+    }
+
+    /**
+     * The chunk boundaries playback should use for a track: ffmpeg's real ones once the
+     * track is split, the layout the ingest is splitting to while it still runs. The
+     * manifest is what the cached chunks really are, so it is used whatever the current
+     * settings would choose.
+     */
+    public ChunkTimeline getChunkTimeline(String trackId, int chunkDurationMs, int chunkCount) {
+        ChunkLayout ingesting = ingestLayouts.get(trackId);
+        if (ingesting != null) {
+            return ChunkTimeline.planned(ingesting, chunkCount);
+        }
+        ChunkManifest manifest = chunkCache.getManifest(trackId);
+        if (manifest != null && manifest.getChunkCount() > 0) {
+            return ChunkTimeline.of(manifest);
         }
+        StoredSong stored = storedSongs.get(trackId);
+        long durationMs = stored != null ? stored.duration * 1000L : 0;
+        return ChunkTimeline.planned(resolveChunkPlan(trackId, chunkDurationMs, durationMs).layout(), chunkCount);
+    }
 
-        // Give watcher a moment
-        Thread.sleep(1000);
-
-        plugin.getLogger().at(Level.INFO).log("Split complete. Generated %d chunks.", chunkCount);
-        return chunkCount;
+    private boolean isStreamingIngestEnabled() {
+        return plugin.getConfig() != null && plugin.getConfig().isStreamingIngest();
     }
 
     private void createSoundEvents(String trackId, int chunkCount) {
@@ -448,34 +1644,44 @@ public class MediaManager {
         if (endExclusive <= startInclusive) {
             return;
         }
+        int written = 0;
         for (int i = startInclusive; i < endExclusive; i++) {
-            String chunkTrackId = String.format("%s_Chunk_%03d", trackId, i);
-            Path jsonPath = serverSoundEventsPath.resolve(chunkTrackId + ".json");
-            String soundFilePath = String.format("Sounds/media_radio/%s_Chunk_%03d.ogg", trackId, i);
-            writeSoundEventConfig(jsonPath, soundFilePath, volumeDb);
+            if (writeSoundEventConfig(trackId, i, volumeDb)) {
+                written++;
+            }
+        }
+        if (written > 0) {
+            plugin.getLogger().at(Level.INFO).log("Created %d SoundEvent configs for %s [%d..%d)", written, trackId,
+                    startInclusive, endExclusive);
         }
-        plugin.getLogger().at(Level.INFO).log("Created SoundEvent configs for %s [%d..%d)", trackId,
-                startInclusive, endExclusive);
     }
 
-    private void writeSoundEventConfig(Path jsonPath, String soundFilePath, float volumeDb) {
-        Map<String, Object> layer = new HashMap<>();
-        layer.put("Files", Collections.singletonList(soundFilePath));
-        layer.put("Volume", VolumeUtil.percentToLayerDb(VolumeUtil.eventDbToPercent(volumeDb)));
-
-        Map<String, Object> soundEvent = new HashMap<>();
-        soundEvent.put("StartAttenuationDistance", 10);
-        soundEvent.put("MaxDistance", 60);
-        soundEvent.put("Volume", volumeDb);
-        soundEvent.put("Parent", "SFX_Attn_Quiet");
-        soundEvent.put("Pitch", 0.0);
-        soundEvent.put("Layers", Collections.singletonList(layer));
-
-        try (Writer writer = Files.newBufferedWriter(jsonPath)) {
-            GSON.toJson(soundEvent, writer);
+    /**
+     * Writes one chunk's SoundEvent from the precompiled template. Skipped when the file
+     * already holds the same volume, so re-registering a chunk costs no I/O.
+     *
+     * @return true if the file was (re)written and needs loading
+     */
+    private boolean writeSoundEventConfig(String trackId, int chunkIndex, float volumeDb) {
+        String chunkTrackId = String.format("%s_Chunk_%03d", trackId, chunkIndex);
+        Float previous = writtenSoundEventVolumes.get(chunkTrackId);
+        if (previous != null && previous == volumeDb) {
+            return false;
+        }
+        Path jsonPath = serverSoundEventsPath.resolve(chunkTrackId + ".json");
+        String json = SOUND_EVENT_HEAD + volumeDb
+                + SOUND_EVENT_FILES + "Sounds/media_radio/" + chunkTrackId + ".ogg"
+                + SOUND_EVENT_LAYER_VOLUME + VolumeUtil.percentToLayerDb(VolumeUtil.eventDbToPercent(volumeDb))
+                + SOUND_EVENT_TAIL;
+        try {
+            Files.writeString(jsonPath, json, StandardCharsets.UTF_8);
         } catch (IOException e) {
             plugin.getLogger().at(Level.SEVERE).withCause(e).log("Failed to write SoundEvent at %s", jsonPath);
+            return false;
         }
+        writtenSoundEventVolumes.put(chunkTrackId, volumeDb);
+        unloadedSoundEvents.add(chunkTrackId);
+        return true;
     }
 
     private void registerCommonSoundAssets(String trackId, int chunkCount) {
@@ -489,40 +1695,139 @@ public class MediaManager {
             return;
         }
 
+        // Size and hash come from the manifest; only chunks of a running ingest are stat-ed
+        ChunkManifest manifest = chunkCache.getManifest(trackId);
         for (int i = startInclusive; i < endExclusive; i++) {
             String fileName = String.format("%s_Chunk_%03d.ogg", trackId, i);
-            Path chunkPath = commonAudioPath.resolve(fileName);
-            if (!Files.exists(chunkPath)) {
-                continue;
-            }
             String assetName = "Sounds/media_radio/" + fileName;
             if (CommonAssetRegistry.hasCommonAsset(assetName)) {
                 continue;
             }
+            Path chunkPath = chunkCache.chunkPath(trackId, i);
+            ChunkManifest.Chunk cached = manifest != null && i < manifest.getChunkCount()
+                    ? manifest.chunks.get(i)
+                    : null;
             try {
-                byte[] bytes = Files.readAllBytes(chunkPath);
-                commonAssetModule.addCommonAsset(RUNTIME_PACK_NAME, new FileCommonAsset(chunkPath, assetName, bytes));
+                // ffmpeg has just closed this chunk, or it was never written
+                if (cached == null && !Files.exists(chunkPath)) {
+                    continue;
+                }
+                long bytes = cached != null ? cached.bytes : Files.size(chunkPath);
+                LazyFileCommonAsset asset = LazyFileCommonAsset.of(chunkPath, assetName,
+                        cached != null ? cached.sha256 : null, mappedFiles,
+                        () -> invalidateMissingChunk(trackId, fileName));
+                commonAssetModule.addCommonAsset(RUNTIME_PACK_NAME, asset);
+                chunkAssets.put(assetName, asset);
+                runtimeAssets.add(trackId, assetName, RuntimeAssetRegistry.Kind.CHUNK, bytes);
             } catch (IOException e) {
                 plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to register sound asset %s", assetName);
             }
         }
     }
 
-    public void updateTrackVolume(String trackId, int chunkCount, float volumeDb) {
-        if (chunkCount <= 0) {
+    /**
+     * A chunk the manifest lists is gone from the cache, noticed when it was served. Once
+     * the track is idle its manifest is dropped, so the next play splits it again.
+     */
+    private void invalidateMissingChunk(String trackId, String fileName) {
+        if (chunkCache.getManifest(trackId) == null || streamingIngests.containsKey(trackId)
+                || !missingChunkTracks.add(trackId)) {
             return;
         }
-        for (int i = 0; i < chunkCount; i++) {
-            updateChunkVolume(trackId, i, volumeDb);
+        plugin.getLogger().at(Level.WARNING).log("Cached chunk %s is missing; invalidating %s", fileName, trackId);
+        invalidateWhenIdle(trackId);
+    }
+
+    /**
+     * Drops the manifest of a track with missing chunks. A session still playing it keeps
+     * the chunks that are there, so this waits until the track is idle, then releases its
+     * assets before the manifest goes. No chunk file is deleted here; the next split
+     * overwrites them.
+     */
+    private void invalidateWhenIdle(String trackId) {
+        var playbackManager = plugin.getPlaybackManager();
+        if (playbackManager != null && playbackManager.isTrackActive(trackId)) {
+            executors.registration().schedule(() -> invalidateWhenIdle(trackId), IDLE_JOB_CHECK_MS,
+                    java.util.concurrent.TimeUnit.MILLISECONDS);
+            return;
+        }
+        missingChunkTracks.remove(trackId);
+        // Split again meanwhile; the new manifest is fine
+        if (streamingIngests.containsKey(trackId)) {
+            return;
+        }
+        releaseRuntimeAssets(trackId);
+        chunkCache.forget(trackId);
+    }
+
+    /**
+     * Sets the volume of a track. Only records the new value and (re)starts a short
+     * debounce, so it is safe to call on the world thread for every click. When the
+     * debounce fires, the chunks just ahead of each playhead are rebound and reloaded.
+     * Chunks further out are rebound as playback approaches them (see
+     * {@link #refreshUpcomingChunkVolumes}), and chunks registered later pick up the
+     * new volume directly.
+     */
+    public void updateTrackVolume(String trackId, float volumeDb) {
+        trackVolumes.put(trackId, volumeDb);
+        pendingVolumeRebinds.compute(trackId, (key, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            return executors.registration().schedule(
+                    () -> rebindUpcomingChunks(key),
+                    VOLUME_COALESCE_MS,
+                    java.util.concurrent.TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void rebindUpcomingChunks(String trackId) {
+        pendingVolumeRebinds.remove(trackId);
+        Float volumeDb = trackVolumes.get(trackId);
+        var playbackManager = plugin.getPlaybackManager();
+        if (volumeDb == null || playbackManager == null) {
+            return;
+        }
+        java.util.List<Integer> heads = playbackManager.getPlayheadsByTrack().getOrDefault(trackId, java.util.List.of());
+        for (int head : heads) {
+            rebindChunkVolumes(trackId, head, head + VOLUME_REBIND_WINDOW, volumeDb);
         }
         plugin.getLogger().at(Level.INFO).log("Updated volume for %s to %.1f dB", trackId, volumeDb);
     }
 
-    public void updateChunkVolume(String trackId, int chunkIndex, float volumeDb) {
-        String chunkTrackId = String.format("%s_Chunk_%03d", trackId, chunkIndex);
-        Path jsonPath = serverSoundEventsPath.resolve(chunkTrackId + ".json");
-        String soundFilePath = String.format("Sounds/media_radio/%s_Chunk_%03d.ogg", trackId, chunkIndex);
-        writeSoundEventConfig(jsonPath, soundFilePath, volumeDb);
+    /**
+     * Called as each chunk starts playing. If chunks in the window ahead still carry an
+     * old volume, rebinds the next two windows off the world thread. A track therefore
+     * only rewrites each stale chunk once, shortly before it is played.
+     */
+    public void refreshUpcomingChunkVolumes(String trackId, int currentChunk) {
+        Float volumeDb = trackVolumes.get(trackId);
+        if (volumeDb == null || pendingVolumeRebinds.containsKey(trackId)) {
+            return;
+        }
+        int start = currentChunk + 1;
+        boolean stale = false;
+        for (int i = start; i < start + VOLUME_REBIND_WINDOW && !stale; i++) {
+            Float written = writtenSoundEventVolumes.get(String.format("%s_Chunk_%03d", trackId, i));
+            stale = written != null && !written.equals(volumeDb);
+        }
+        if (stale) {
+            executors.registration().execute(
+                    () -> rebindChunkVolumes(trackId, start, start + 2 * VOLUME_REBIND_WINDOW, volumeDb));
+        }
+    }
+
+    /**
+     * Rewrites and reloads registered chunks in {@code [startInclusive, endExclusive)}
+     * whose SoundEvent has a different volume. Chunks not registered yet are left alone.
+     */
+    private void rebindChunkVolumes(String trackId, int startInclusive, int endExclusive, float volumeDb) {
+        for (int i = startInclusive; i < endExclusive; i++) {
+            if (writtenSoundEventVolumes.containsKey(String.format("%s_Chunk_%03d", trackId, i))) {
+                writeSoundEventConfig(trackId, i, volumeDb);
+            }
+        }
+        loadSoundEventAssetsRange(trackId, startInclusive, endExclusive);
     }
 
     private void loadSoundEventAssets(String trackId, int chunkCount) {
@@ -537,17 +1842,23 @@ public class MediaManager {
         java.util.List<Path> paths = new java.util.ArrayList<>(size);
         for (int i = startInclusive; i < endExclusive; i++) {
             String chunkTrackId = String.format("%s_Chunk_%03d", trackId, i);
-            Path jsonPath = serverSoundEventsPath.resolve(chunkTrackId + ".json");
-            if (Files.exists(jsonPath)) {
-                paths.add(jsonPath);
+            if (!writtenSoundEventVolumes.containsKey(chunkTrackId)) {
+                continue;
             }
+            // Unchanged and already in the asset store: nothing to load
+            if (!unloadedSoundEvents.remove(chunkTrackId) && SoundEvent.getAssetMap().getAsset(chunkTrackId) != null) {
+                continue;
+            }
+            paths.add(serverSoundEventsPath.resolve(chunkTrackId + ".json"));
         }
         if (paths.isEmpty()) {
             return;
         }
         try {
+            long started = System.nanoTime();
             AssetLoadResult<String, SoundEvent> result = SoundEvent.getAssetStore()
                     .loadAssetsFromPaths(RUNTIME_PACK_NAME, paths, AssetUpdateQuery.DEFAULT, true);
+            assetLoadPacer.record(paths.size(), System.nanoTime() - started);
             if (result.hasFailed()) {
                 plugin.getLogger().at(Level.WARNING).log("Some SoundEvent assets failed to load for %s", trackId);
             }
@@ -556,7 +1867,8 @@ public class MediaManager {
         }
     }
 
-    public CompletableFuture<Void> playSound(MediaInfo mediaInfo, PlayerRef playerRef, Store<EntityStore> store) {
+    public CompletableFuture<Void> playSound(MediaInfo mediaInfo, PlayerRef playerRef, Store<EntityStore> store,
+            java.util.function.IntConsumer onQueuePosition) {
         if (playerRef == null) {
             return CompletableFuture.completedFuture(null);
         }
@@ -565,7 +1877,10 @@ public class MediaManager {
         if (plugin.getPlaybackManager() != null) {
             volumeDb = plugin.getPlaybackManager().getPlayerVolume(playerRef.getUuid());
         }
-        prepareRuntimeAssetsAsync(mediaInfo, 750, volumeDb, true)
+        int chunkDurationMs = plugin.getConfig().getChunkDurationMs();
+        // A player's own radio is their library, so they are requester and target alike
+        String playerId = playerRef.getUuid().toString();
+        prepareRuntimeAssetsAsync(mediaInfo, chunkDurationMs, volumeDb, playerId, playerId, onQueuePosition)
                 .thenAccept(totalChunks -> {
             if (totalChunks <= 0) {
                 plugin.getLogger().at(Level.WARNING).log("No chunks available for %s", mediaInfo.trackId);
@@ -574,8 +1889,7 @@ public class MediaManager {
             }
             store.getExternalData().getWorld().execute(() -> {
                 MediaInfo updated = withChunkCount(mediaInfo, totalChunks);
-                plugin.getPlaybackManager().playForPlayer(updated, playerRef, totalChunks,
-                        plugin.getConfig().getChunkDurationMs(), store);
+                plugin.getPlaybackManager().playForPlayer(updated, playerRef, totalChunks, chunkDurationMs, store);
                 result.complete(null);
             });
         }).exceptionally(ex -> {
@@ -586,7 +1900,8 @@ public class MediaManager {
     }
 
     public CompletableFuture<Void> playSoundAtBlock(MediaInfo mediaInfo, Vector3i blockPos, int chunkDurationMs,
-            Store<EntityStore> store) {
+            Store<EntityStore> store, String requesterId, String targetId,
+            java.util.function.IntConsumer onQueuePosition) {
         if (mediaInfo == null || blockPos == null) {
             return CompletableFuture.completedFuture(null);
         }
@@ -595,7 +1910,8 @@ public class MediaManager {
         if (plugin.getPlaybackManager() != null) {
             volumeDb = plugin.getPlaybackManager().getBlockVolume(blockPos, store);
         }
-        prepareRuntimeAssetsAsync(mediaInfo, chunkDurationMs, volumeDb, true).thenAccept(totalChunks -> {
+        prepareRuntimeAssetsAsync(mediaInfo, chunkDurationMs, volumeDb, requesterId, targetId, onQueuePosition)
+                .thenAccept(totalChunks -> {
             if (totalChunks <= 0) {
                 plugin.getLogger().at(Level.WARNING).log("No chunks available for %s", mediaInfo.trackId);
                 result.completeExceptionally(new RuntimeException("Failed to prepare media assets (0 chunks)"));
@@ -614,42 +1930,31 @@ public class MediaManager {
     }
 
     public int getChunkCount(String trackId) {
-        return resolveChunkCount(trackId);
+        return chunkCache.getChunkCount(trackId);
     }
 
     private CompletableFuture<Integer> prepareRuntimeAssetsAsync(MediaInfo mediaInfo, int chunkDurationMs,
-            float volumeDb, boolean waitForFullAssets) {
-        return CompletableFuture
-                .supplyAsync(
-                        () -> ensureRuntimeAssets(mediaInfo, chunkDurationMs, volumeDb, waitForFullAssets),
-                        com.hypixel.hytale.server.core.HytaleServer.SCHEDULED_EXECUTOR)
-                .thenCompose(result -> {
-                    if (result == null || result.chunkCount <= 0) {
-                        return CompletableFuture.completedFuture(0);
-                    }
-                    if (result.remainingPlan == null) {
-                        return CompletableFuture.completedFuture(result.chunkCount);
-                    }
-                    if (!result.remainingPlan.waitForFullAssets) {
-                        startBackgroundSoundEventGeneration(
-                                result.remainingPlan.trackId,
-                                result.remainingPlan.startChunk,
-                                result.remainingPlan.totalChunks,
-                                result.remainingPlan.volumeDb);
-                        return CompletableFuture.completedFuture(result.chunkCount);
-                    }
-                    return generateRemainingSoundEventsAsync(
-                            result.remainingPlan.trackId,
-                            result.remainingPlan.startChunk,
-                            result.remainingPlan.totalChunks,
-                            result.remainingPlan.volumeDb,
-                            BACKGROUND_ASSET_DELAY_MS).thenApply(ignored -> {
-                                if (result.remainingPlan.createModelAfter) {
-                                    createTrackModel(result.remainingPlan.trackId, result.chunkCount);
-                                }
-                                return result.chunkCount;
-                            });
-                });
+            float volumeDb, String requesterId, String targetId, java.util.function.IntConsumer onQueuePosition) {
+        if (mediaInfo != null) {
+            trackVolumes.put(mediaInfo.trackId, volumeDb);
+            StoredSong stored = storedSongs.get(mediaInfo.trackId);
+            if (stored != null) {
+                stored.lastPlayedAt = System.currentTimeMillis();
+                stored.playCount++;
+                scheduleSongIndexSave();
+            }
+        }
+        if (mediaInfo == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        IngestJob job = joinIngestJob(mediaInfo.trackId, requesterId, targetId);
+        job.beginStage();
+        CompletableFuture<Integer> prepared = prepareQueue.submit(requesterId, IngestQueue.Priority.PLAYBACK, () -> {
+            job.checkCancelled();
+            return ensureRuntimeAssets(mediaInfo, chunkDurationMs, volumeDb, job);
+        }, onQueuePosition);
+        prepared.whenComplete((chunks, err) -> finishStage(job));
+        return prepared;
     }
 
     private MediaInfo withChunkCount(MediaInfo mediaInfo, int chunkCount) {
@@ -664,12 +1969,12 @@ public class MediaManager {
                 mediaInfo.thumbnailAssetPath);
     }
 
-    private AssetPreparation ensureRuntimeAssets(MediaInfo mediaInfo, int chunkDurationMs, float volumeDb,
-            boolean waitForFullAssets) {
+    private int ensureRuntimeAssets(MediaInfo mediaInfo, int chunkDurationMs, float volumeDb, IngestJob job) {
         if (mediaInfo == null) {
-            return new AssetPreparation(0, null);
+            return 0;
         }
         String trackId = mediaInfo.trackId;
+        runtimeAssets.touch(trackId);
 
         // Check for outdated version and triggers re-normalization
         StoredSong stored = storedSongs.get(trackId);
@@ -681,182 +1986,161 @@ public class MediaManager {
             saveSongIndex();
         }
 
-        Path storedAudio = storagePath.resolve(trackId + ".ogg");
-        if (!Files.exists(storedAudio)) {
-            try {
-                downloadMedia(mediaInfo.url, trackId);
-            } catch (Exception e) {
-                plugin.getLogger().at(Level.WARNING).withCause(e)
-                        .log("Failed to download audio for %s", trackId);
-                return new AssetPreparation(0, null);
+        ChunkDurationPolicy.Decision plan = resolveChunkPlan(trackId, chunkDurationMs, mediaInfo.duration * 1000L);
+        ChunkLayout layout = plan.layout();
+        boolean ingesting = streamingIngests.containsKey(trackId);
+        boolean rechunked = false;
+        ChunkManifest cachedManifest = chunkCache.getManifest(trackId);
+        if (!ingesting && chunkCache.isStale(trackId, layout, CURRENT_NORMALIZATION_VERSION)
+                && cachedManifest.normalizationVersion == CURRENT_NORMALIZATION_VERSION
+                && plugin.getPlaybackManager() != null && plugin.getPlaybackManager().isTrackActive(trackId)) {
+            // Another session is playing these chunks; keep their layout until the track goes idle
+            plugin.getLogger().at(Level.INFO).log(
+                    "Cached chunks for %s use other settings but the track is playing; serving them as they are",
+                    trackId);
+            layout = cachedManifest.getLayout();
+        } else if (!ingesting && chunkCache.isStale(trackId, layout, CURRENT_NORMALIZATION_VERSION)) {
+            rechunked = rechunkCachedTrack(trackId, plan);
+            if (!rechunked) {
+                plugin.getLogger().at(Level.INFO).log(
+                        "Cached chunks for %s were split with other settings; re-splitting", trackId);
+                cleanupRuntimeAssets(trackId);
             }
         }
 
-        int chunkCount = resolveChunkCount(trackId);
+        int chunkCount = ingesting ? 0 : chunkCache.lookup(trackId, layout, CURRENT_NORMALIZATION_VERSION);
         if (chunkCount <= 0) {
-            try {
-                double seconds = Math.max(0.1, chunkDurationMs / 1000.0);
-                chunkCount = splitAudio(trackId, seconds);
-                if (chunkCount > 0) {
-                    int initialBatch = Math.min(chunkCount, INITIAL_ASSET_BATCH);
-                    registerCommonSoundAssetsRange(trackId, 0, initialBatch);
-                    createSoundEventsRange(trackId, 0, initialBatch, volumeDb);
-                    loadSoundEventAssetsRange(trackId, 0, initialBatch);
-
-                    // Ensure appearances (Initial Batch)
-                    // With unified model, we just need to confirm the model is loaded (done in
-                    // createTrackModel)
-
-                    // Schedule background generation for the rest (SoundEvents still need partial
-                    // loading if we were lazier,
-                    // but we generated all SoundEvents above.
-                    // Wait, splitAudio generates files, createSoundEvents generates ALL jsons.
-                    // Implementation plan said: "splitAudio and createSoundEvents continue to run
-                    // in background"
-                    // but currently they run synchronously in `ensureRuntimeAssets` for the WHOLE
-                    // track if it's new.
-                    // The "Refactor for Buffered Streaming" task made them background?
-                    // Ah, I see `startBackgroundAssetGeneration` was calling
-                    // `createChunkAppearance`.
-                    // The splitting seems to happen all at once in `splitAudio` currently?
-                    // Wait, looking at lines 582: chunkCount = splitAudio(...)
-                    // This seems to process everything.
-                    // Let's look at `splitAudio` again. It splits the whole file.
-                    // So `chunkCount` is the TOTAL.
-
-                    // The previous code had:
-                    // int initialBatch = Math.min(chunkCount, 10);
-                    // loop createChunkAppearance...
-                    // if chunkCount > initialBatch -> startBackgroundAssetGeneration
-
-                    // Since we now generate ONE model with ALL keys, we just call createTrackModel
-                    // once.
-                    // We don't need background generation for APPEARANCES anymore.
-                    if (chunkCount > initialBatch) {
-                        return new AssetPreparation(
-                                chunkCount,
-                                new RemainingSoundEventsPlan(
-                                        trackId,
-                                        initialBatch,
-                                        chunkCount,
-                                        volumeDb,
-                                        waitForFullAssets,
-                                        waitForFullAssets));
-                    }
-                    // Create the Unified Model once all sound events exist.
-                    createTrackModel(trackId, chunkCount);
-                    return new AssetPreparation(chunkCount, null);
-
+            if (!ingesting && resolveStoredAudio(trackId) == null && !isStreamingIngestEnabled()) {
+                try {
+                    downloadMedia(mediaInfo.url, trackId, job);
+                } catch (Exception e) {
+                    plugin.getLogger().at(Level.WARNING).withCause(e)
+                            .log("Failed to download audio for %s", trackId);
+                    return 0;
                 }
-            } catch (Exception e) {
-                plugin.getLogger().at(Level.WARNING).withCause(e)
-                        .log("Failed to prepare runtime assets for %s", trackId);
-                return new AssetPreparation(0, null);
             }
+            // Stream or split the stored file; both register chunks as ffmpeg closes them
+            return streamRuntimeAssets(mediaInfo, plan, volumeDb, job);
+        }
+
+        // Warm start from the chunk cache: register the cached chunks if this track has
+        // not been loaded since the server started. The first window is registered up
+        // front, the rest goes through the registration queue around the playheads.
+        String appearanceId = "medradio_marker_" + trackId;
+        if (rechunked || ModelAsset.getAssetMap().getAsset(appearanceId) == null) {
+            int initialBatch = Math.min(chunkCount, INITIAL_ASSET_BATCH);
+            registrationQueue.registerNow(trackId, 0, initialBatch, volumeDb);
+            registrationQueue.enqueue(trackId, initialBatch, chunkCount, volumeDb);
+            createTrackModel(trackId, chunkCount);
         } else {
-            // Check if model exists
-            String appearanceId = "medradio_marker_" + trackId;
-            if (ModelAsset.getAssetMap().getAsset(appearanceId) == null) {
-                int initialBatch = Math.min(chunkCount, INITIAL_ASSET_BATCH);
-                registerCommonSoundAssetsRange(trackId, 0, initialBatch);
-                // Ensure SoundEvents
-                if (!Files.exists(serverSoundEventsPath.resolve(String.format("%s_Chunk_%03d.json", trackId, 0)))) {
-                    createSoundEventsRange(trackId, 0, initialBatch, volumeDb);
-                }
-                loadSoundEventAssetsRange(trackId, 0, initialBatch);
-                if (chunkCount > initialBatch) {
-                    return new AssetPreparation(
-                            chunkCount,
-                            new RemainingSoundEventsPlan(
-                                    trackId,
-                                    initialBatch,
-                                    chunkCount,
-                                    volumeDb,
-                                    waitForFullAssets,
-                                    waitForFullAssets));
-                }
-                createTrackModel(trackId, chunkCount);
-                return new AssetPreparation(chunkCount, null);
-            }
+            // Chunks released while the track was playing before wait for a tick to come back
+            registrationQueue.prioritize();
         }
-        return new AssetPreparation(chunkCount, null);
+        return chunkCount;
     }
 
-    // Background generation is no longer needed for appearances since we generate
-    // the single model upfront.
-    // If we were splitting audio in background, that would be different, but
-    // splitAudio does it all.
-    // We'll keep the method empty or remove usage to satisfy the "remove loop"
-    // requirement.
-    private void startBackgroundAssetGeneration(String trackId, int startChunk, int totalChunks) {
-        // No-op for now as model contains all states
+    /**
+     * Cuts a track's cached chunks to a new chunk layout with {@link OggVorbisSplitter}
+     * instead of running ffmpeg again. Only applies when the chunks were encoded with the
+     * current normalization and are all present. Returns false when the track has to be
+     * split from the stored audio instead.
+     */
+    private boolean rechunkCachedTrack(String trackId, ChunkDurationPolicy.Decision plan) {
+        ChunkManifest manifest = chunkCache.getManifest(trackId);
+        if (manifest == null || manifest.normalizationVersion != CURRENT_NORMALIZATION_VERSION
+                || manifest.encoder == null || !manifest.encoder.startsWith("libvorbis")) {
+            return false;
+        }
+        java.util.List<Path> sources = new java.util.ArrayList<>(manifest.getChunkCount());
+        for (ChunkManifest.Chunk chunk : manifest.chunks) {
+            Path source = chunkCache.getCacheDir().resolve(chunk.file);
+            if (!Files.exists(source)) {
+                return false;
+            }
+            sources.add(source);
+        }
+        // The current chunks are about to be replaced; nothing may serve or map them meanwhile
+        releaseRuntimeAssets(trackId);
+        releaseMappedChunks(trackId);
+        long started = System.nanoTime();
+        try {
+            java.util.List<ChunkSegment> segments = OggVorbisSplitter.split(sources, plan.layout(),
+                    index -> chunkCache.chunkPath(trackId, index)
+                            .resolveSibling(ChunkCache.chunkFileName(trackId, index) + RECHUNK_STAGING_SUFFIX));
+            chunkCache.replace(trackId, plan, CURRENT_NORMALIZATION_VERSION, manifest.encoder, segments,
+                    RECHUNK_STAGING_SUFFIX);
+            plugin.getLogger().at(Level.INFO).log("Re-chunked %s from %d to %d chunks (%s) in %.1f ms", trackId,
+                    sources.size(), segments.size(), plan.reason(), (System.nanoTime() - started) / 1e6);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e)
+                    .log("Failed to re-chunk %s; splitting it again with ffmpeg", trackId);
+            return false;
+        }
     }
 
-    private CompletableFuture<Void> generateRemainingSoundEventsAsync(String trackId, int startChunk, int totalChunks,
-            float volumeDb, long delayMs) {
-        CompletableFuture<Void> completion = new CompletableFuture<>();
-        scheduleSoundEventChunk(trackId, startChunk, totalChunks, volumeDb, delayMs, completion);
-        return completion;
+    /**
+     * Registers the audio and SoundEvents for chunks {@code [startInclusive, endExclusive)}.
+     */
+    private void registerChunkRange(String trackId, int startInclusive, int endExclusive, float volumeDb) {
+        registerCommonSoundAssetsRange(trackId, startInclusive, endExclusive);
+        // The volume may have changed since these chunks were queued
+        createSoundEventsRange(trackId, startInclusive, endExclusive, trackVolumes.getOrDefault(trackId, volumeDb));
+        loadSoundEventAssetsRange(trackId, startInclusive, endExclusive);
+        runtimeAssets.enforceBudget(trackId);
     }
 
-    private void scheduleSoundEventChunk(String trackId, int current, int totalChunks, float volumeDb, long delayMs,
-            CompletableFuture<Void> completion) {
-        if (current >= totalChunks) {
-            completion.complete(null);
+    /**
+     * Takes chunks {@code [startInclusive, endExclusive)} out of the asset stores again
+     * once playback has moved past them. The chunk files stay in the cache, so the same
+     * chunks can be registered again after a seek back.
+     */
+    private void releaseChunkRange(String trackId, int startInclusive, int endExclusive) {
+        java.util.List<String> soundEventIds = new java.util.ArrayList<>(endExclusive - startInclusive);
+        for (int i = startInclusive; i < endExclusive; i++) {
+            String chunkTrackId = String.format("%s_Chunk_%03d", trackId, i);
+            String assetName = "Sounds/media_radio/" + ChunkCache.chunkFileName(trackId, i);
+            LazyFileCommonAsset asset = chunkAssets.remove(assetName);
+            if (asset != null) {
+                CommonAssetRegistry.removeCommonAssetByName(RUNTIME_PACK_NAME, assetName);
+                runtimeAssets.remove(trackId, assetName);
+            }
+            if (writtenSoundEventVolumes.remove(chunkTrackId) != null) {
+                soundEventIds.add(chunkTrackId);
+            }
+            unloadedSoundEvents.remove(chunkTrackId);
+        }
+        if (soundEventIds.isEmpty()) {
             return;
         }
         try {
-            int end = Math.min(totalChunks, current + BACKGROUND_ASSET_BATCH);
-            registerCommonSoundAssetsRange(trackId, current, end);
-            createSoundEventsRange(trackId, current, end, volumeDb);
-            loadSoundEventAssetsRange(trackId, current, end);
-            int next = end;
-            com.hypixel.hytale.server.core.HytaleServer.SCHEDULED_EXECUTOR.schedule(
-                    () -> scheduleSoundEventChunk(trackId, next, totalChunks, volumeDb, delayMs, completion),
-                    delayMs,
-                    java.util.concurrent.TimeUnit.MILLISECONDS);
+            SoundEvent.getAssetStore().removeAssets(soundEventIds);
         } catch (Exception e) {
-            completion.completeExceptionally(e);
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to unload SoundEvents for %s", trackId);
         }
-    }
-
-    private CompletableFuture<Void> startBackgroundSoundEventGeneration(String trackId, int startChunk, int totalChunks,
-            float volumeDb) {
-        return generateRemainingSoundEventsAsync(
-                trackId,
-                startChunk,
-                totalChunks,
-                volumeDb,
-                BACKGROUND_ASSET_DELAY_MS);
-    }
-
-    private static final class AssetPreparation {
-        private final int chunkCount;
-        private final RemainingSoundEventsPlan remainingPlan;
-
-        private AssetPreparation(int chunkCount, RemainingSoundEventsPlan remainingPlan) {
-            this.chunkCount = chunkCount;
-            this.remainingPlan = remainingPlan;
+        for (String chunkTrackId : soundEventIds) {
+            deleteFile(serverSoundEventsPath.resolve(chunkTrackId + ".json"));
         }
     }
 
-    private static final class RemainingSoundEventsPlan {
-        private final String trackId;
-        private final int startChunk;
-        private final int totalChunks;
-        private final float volumeDb;
-        private final boolean waitForFullAssets;
-        private final boolean createModelAfter;
+    /**
+     * Moves the registration queue onto the current playheads right away, e.g. after a
+     * seek or when a session is waiting on a chunk.
+     */
+    public void prioritizeChunkRegistration() {
+        registrationQueue.prioritize();
+    }
 
-        private RemainingSoundEventsPlan(String trackId, int startChunk, int totalChunks, float volumeDb,
-                boolean waitForFullAssets, boolean createModelAfter) {
-            this.trackId = trackId;
-            this.startChunk = startChunk;
-            this.totalChunks = totalChunks;
-            this.volumeDb = volumeDb;
-            this.waitForFullAssets = waitForFullAssets;
-            this.createModelAfter = createModelAfter;
-        }
+    /**
+     * One-line summary of the background asset work, for the setup command.
+     */
+    public String getRuntimeStatusSummary() {
+        return String.format("MediaRadio %s; %d chunks registered, %d waiting for registration; %s; "
+                        + "playlist import: %d downloading, %d queued; %s; %s, %s; %s.",
+                assetLoadPacer.describe(), registrationQueue.getRegisteredCount(), registrationQueue.getPendingCount(),
+                runtimeAssets.describe() + "; " + songStorage.describe(), playlistImporter.getActiveCount(),
+                playlistImporter.getQueuedCount(), executors.describe(), fetchQueue.describe(),
+                prepareQueue.describe(), mappedFiles.describe());
     }
 
     public void createTrackModel(String trackId, int estimatedChunks) {
@@ -914,6 +2198,12 @@ public class MediaManager {
 
         registerCommonModelAsset(appearanceId, jsonPath);
         loadModelAsset(appearanceId);
+        try {
+            runtimeAssets.add(trackId, "NPC/Models/" + appearanceId + ".json", RuntimeAssetRegistry.Kind.MODEL,
+                    Files.size(jsonPath));
+        } catch (IOException ignored) {
+        }
+        runtimeAssets.enforceBudget(trackId);
 
         plugin.getLogger().at(Level.INFO).log("Created unified Track Model for %s with %d animation states", trackId,
                 estimatedChunks);
@@ -929,8 +2219,7 @@ public class MediaManager {
             return;
 
         try {
-            byte[] bytes = Files.readAllBytes(existingPath);
-            commonAssetModule.addCommonAsset(RUNTIME_PACK_NAME, new FileCommonAsset(existingPath, assetName, bytes));
+            commonAssetModule.addCommonAsset(RUNTIME_PACK_NAME, LazyFileCommonAsset.of(existingPath, assetName, null));
         } catch (IOException e) {
             plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to register common model asset %s",
                     assetName);
@@ -1290,13 +2579,20 @@ public class MediaManager {
     }
 
     public CompletableFuture<String> ensureThumbnailAsync(String url, String trackId) {
-        return CompletableFuture.supplyAsync(() -> ensureThumbnail(url, trackId));
+        return CompletableFuture.supplyAsync(() -> ensureThumbnail(url, trackId), executors.network());
     }
 
+    /**
+     * Makes sure every library song has a thumbnail. Songs whose image URL is not cached
+     * yet are resolved together in one batch yt-dlp run; the images themselves are then
+     * fetched directly.
+     */
     public void warmThumbnails(MediaLibrary library) {
         if (library == null) {
             return;
         }
+        Map<String, java.util.List<MediaLibrary.SavedSong>> missing = new HashMap<>();
+        java.util.List<String> unresolved = new java.util.ArrayList<>();
         for (MediaLibrary.SavedSong song : library.getAllSongs()) {
             if (song.url == null || song.url.isEmpty()) {
                 continue;
@@ -1310,24 +2606,56 @@ public class MediaManager {
                 }
                 continue;
             }
+            missing.computeIfAbsent(trackId, key -> new java.util.ArrayList<>()).add(song);
+        }
+        for (Map.Entry<String, java.util.List<MediaLibrary.SavedSong>> entry : missing.entrySet()) {
+            StoredSong stored = storedSongs.get(entry.getKey());
+            String url = entry.getValue().get(0).url;
+            if (stored != null && stored.thumbnailUrl != null && !stored.thumbnailUrl.isEmpty()) {
+                warmThumbnail(library, entry.getKey(), url, entry.getValue());
+            } else {
+                unresolved.add(url);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        resolveMetadataBatch(unresolved, info -> {
+            java.util.List<MediaLibrary.SavedSong> songs = missing.get(info.trackId);
+            if (songs != null) {
+                warmThumbnail(library, info.trackId, info.url, songs);
+            }
+        });
+    }
 
-            ensureThumbnailAsync(song.url, trackId).thenAccept(assetPath -> {
-                if (assetPath == null || assetPath.isEmpty()) {
-                    return;
-                }
+    private void warmThumbnail(MediaLibrary library, String trackId, String url,
+            java.util.List<MediaLibrary.SavedSong> songs) {
+        ensureThumbnailAsync(url, trackId).thenAccept(assetPath -> {
+            if (assetPath == null || assetPath.isEmpty()) {
+                return;
+            }
+            for (MediaLibrary.SavedSong song : songs) {
                 song.trackId = trackId;
                 song.thumbnailAssetPath = assetPath;
-                library.save();
-            });
-        }
+            }
+            library.save();
+        });
     }
 
     private String ensureThumbnail(String url, String trackId) {
         Path pngPath = thumbnailPath.resolve(trackId + ".png");
         if (Files.exists(pngPath)) {
-            registerThumbnailAsset(pngPath, getThumbnailAssetPath(trackId));
+            registerThumbnailAsset(trackId, pngPath, getThumbnailAssetPath(trackId));
             return getThumbnailAssetPath(trackId);
         }
+        StoredSong stored = storedSongs.get(trackId);
+        if (stored != null && stored.thumbnailUrl != null && !stored.thumbnailUrl.isEmpty()) {
+            // The image URL is known from the metadata, so no yt-dlp process is needed
+            String assetPath = fetchThumbnail(trackId, stored.thumbnailUrl);
+            if (!assetPath.isEmpty()) {
+                return assetPath;
+            }
+        }
 
         try {
             java.util.List<String> command = new java.util.ArrayList<>();
@@ -1343,9 +2671,10 @@ public class MediaManager {
             command.add(url);
             ProcessBuilder pb = new ProcessBuilder(command);
             pb.redirectErrorStream(true);
+            IngestJob job = detachedJob(trackId);
             Process process;
             try {
-                process = pb.start();
+                process = job.start(pb, "Thumbnail download", metadataTimeoutMs());
             } catch (IOException e) {
                 plugin.getLogger().at(Level.WARNING).withCause(e)
                         .log("yt-dlp not available for thumbnail download. Embedded yt-dlp failed to execute.");
@@ -1359,7 +2688,7 @@ public class MediaManager {
                 }
             }
 
-            int exitCode = process.waitFor();
+            int exitCode = job.waitFor(process);
             if (exitCode != 0) {
                 if (output.contains("HTTP Error 403") || output.contains("403: Forbidden")) {
                     plugin.getLogger().at(Level.WARNING).log(
@@ -1376,7 +2705,46 @@ public class MediaManager {
                 plugin.getLogger().at(Level.WARNING).log("Thumbnail file not found for %s", trackId);
                 return "";
             }
+            return convertThumbnail(trackId, downloaded, pngPath);
+        } catch (Exception e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to download thumbnail for %s", trackId);
+            return "";
+        }
+    }
+
+    /**
+     * Downloads a thumbnail straight from its image URL and converts it like one written
+     * by yt-dlp. Returns "" when that fails, so the caller can fall back to yt-dlp.
+     */
+    private String fetchThumbnail(String trackId, String thumbnailUrl) {
+        try {
+            String path = URI.create(thumbnailUrl).getPath();
+            int dot = path != null ? path.lastIndexOf('.') : -1;
+            String extension = dot >= 0 && path.length() - dot <= 5 ? path.substring(dot + 1) : "jpg";
+            Path downloaded = thumbnailPath.resolve(trackId + "." + extension);
+            java.net.http.HttpResponse<Path> response = THUMBNAIL_HTTP.send(
+                    java.net.http.HttpRequest.newBuilder(URI.create(thumbnailUrl))
+                            .timeout(java.time.Duration.ofSeconds(20))
+                            .build(),
+                    java.net.http.HttpResponse.BodyHandlers.ofFile(downloaded));
+            if (response.statusCode() != 200) {
+                deleteFile(downloaded);
+                plugin.getLogger().at(Level.WARNING).log("Thumbnail download for %s returned HTTP %d", trackId,
+                        response.statusCode());
+                return "";
+            }
+            return convertThumbnail(trackId, downloaded, thumbnailPath.resolve(trackId + ".png"));
+        } catch (Exception e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to fetch thumbnail for %s", trackId);
+            return "";
+        }
+    }
 
+    /**
+     * Turns a downloaded thumbnail into the PNG the UI shows and registers it.
+     */
+    private String convertThumbnail(String trackId, Path downloaded, Path pngPath) {
+        try {
             if (!downloaded.getFileName().toString().endsWith(".png")) {
                 String ffmpegCommand = resolveFfmpegCommand();
                 if (ffmpegCommand == null) {
@@ -1411,10 +2779,10 @@ public class MediaManager {
                 Files.move(downloaded, pngPath);
             }
 
-            registerThumbnailAsset(pngPath, getThumbnailAssetPath(trackId));
+            registerThumbnailAsset(trackId, pngPath, getThumbnailAssetPath(trackId));
             return getThumbnailAssetPath(trackId);
         } catch (Exception e) {
-            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to download thumbnail for %s", trackId);
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to convert thumbnail for %s", trackId);
             return "";
         }
     }
@@ -1428,7 +2796,7 @@ public class MediaManager {
         return null;
     }
 
-    private void registerThumbnailAsset(Path pngPath, String assetPath) {
+    private void registerThumbnailAsset(String trackId, Path pngPath, String assetPath) {
         CommonAssetModule commonAssetModule = CommonAssetModule.get();
         if (commonAssetModule == null || assetPath == null || assetPath.isEmpty()) {
             return;
@@ -1437,21 +2805,14 @@ public class MediaManager {
             return;
         }
         try {
-            byte[] bytes = Files.readAllBytes(pngPath);
-            commonAssetModule.addCommonAsset(RUNTIME_PACK_NAME, new FileCommonAsset(pngPath, assetPath, bytes));
+            commonAssetModule.addCommonAsset(RUNTIME_PACK_NAME,
+                    LazyFileCommonAsset.of(pngPath, assetPath, null, mappedFiles, null));
+            runtimeAssets.add(trackId, assetPath, RuntimeAssetRegistry.Kind.THUMBNAIL, Files.size(pngPath));
         } catch (IOException e) {
             plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to register thumbnail asset %s", assetPath);
         }
     }
 
-    private int resolveChunkCount(String trackId) {
-        int chunkCount = 0;
-        while (Files.exists(commonAudioPath.resolve(String.format("%s_Chunk_%03d.ogg", trackId, chunkCount)))) {
-            chunkCount++;
-        }
-        return chunkCount;
-    }
-
     public CompletableFuture<Void> deleteMediaForUrl(String url) {
         if (url == null || url.isEmpty()) {
             return CompletableFuture.completedFuture(null);
@@ -1472,28 +2833,63 @@ public class MediaManager {
         }
         return CompletableFuture.runAsync(() -> {
             cleanupRuntimeAssets(trackId);
-        }, com.hypixel.hytale.server.core.HytaleServer.SCHEDULED_EXECUTOR);
+        }, executors.registration());
     }
 
-    public void cleanupRuntimeAssets(String trackId) {
-        int chunkCount = resolveChunkCount(trackId);
-        for (int i = 0; i < chunkCount; i++) {
-            String fileName = String.format("%s_Chunk_%03d.ogg", trackId, i);
-            Path chunkPath = commonAudioPath.resolve(fileName);
-            deleteFile(chunkPath);
-        }
-
-        for (int i = 0; i < chunkCount; i++) {
-            String chunkTrackId = String.format("%s_Chunk_%03d", trackId, i);
-            Path jsonPath = serverSoundEventsPath.resolve(chunkTrackId + ".json");
-            deleteFile(jsonPath);
-        }
+    /**
+     * Deletes a stored song to bring the songs directory back under its quota: its
+     * audio, its cached chunks and its index entry. Requesting it again downloads it anew.
+     */
+    private void evictStoredSong(String trackId) {
+        Path audio = resolveStoredAudio(trackId);
+        cleanupRuntimeAssets(trackId);
+        deleteFile(audio);
+        storedSongs.remove(trackId);
+        saveSongIndex();
     }
 
-    public void cleanupRuntimeAssetsAsync(String trackId) {
-        CompletableFuture.runAsync(
-                () -> cleanupRuntimeAssets(trackId),
-                com.hypixel.hytale.server.core.HytaleServer.SCHEDULED_EXECUTOR);
+    public void cleanupRuntimeAssets(String trackId) {
+        releaseRuntimeAssets(trackId);
+        // Mapped files cannot be deleted on every platform
+        releaseMappedChunks(trackId);
+        chunkCache.remove(trackId);
+    }
+
+    /**
+     * Unmaps a track's chunk files before they are deleted or split again.
+     */
+    private void releaseMappedChunks(String trackId) {
+        String prefix = trackId + "_Chunk_";
+        mappedFiles.release(file -> file.getFileName().toString().startsWith(prefix));
+    }
+
+    /**
+     * Stops registering a track's chunks, unregisters them and deletes their SoundEvents,
+     * but keeps the chunk files themselves.
+     */
+    private void releaseRuntimeAssets(String trackId) {
+        registrationQueue.cancel(trackId);
+        releaseChunkRange(trackId, 0, chunkCache.getChunkCount(trackId));
+    }
+
+    /**
+     * Drops an idle track from the runtime pack to make room under the asset budget:
+     * its chunks, SoundEvents and model. The next play registers them again from the
+     * chunk cache, as the missing model makes it a warm start.
+     */
+    private void evictTrackAssets(String trackId) {
+        releaseRuntimeAssets(trackId);
+        String appearanceId = "medradio_marker_" + trackId;
+        String modelName = "NPC/Models/" + appearanceId + ".json";
+        CommonAssetRegistry.removeCommonAssetByName(RUNTIME_PACK_NAME, modelName);
+        try {
+            ModelAsset.getAssetStore().removeAssets(java.util.List.of(appearanceId));
+        } catch (Exception e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to unload ModelAsset %s", appearanceId);
+        }
+        runtimeAssets.remove(trackId, modelName);
+        plugin.getLogger().at(Level.INFO).log("Evicted idle track %s from runtime assets (%s)", trackId,
+                runtimeAssets.describe());
     }
 
     private void deleteCommonAsset(String assetName, Path filePath) {
@@ -1609,6 +3005,18 @@ public class MediaManager {
         public String artist;
         public long duration;
         public int version;
+        // File name in the songs directory; the extension follows the source codec
+        public String audioFile;
+        // loudnorm first-pass measurement of audioFile, taken against loudnessTarget
+        public LoudnessMeasurement loudness;
+        public String loudnessTarget;
+        // When and how often the song was played, for evicting from the songs directory
+        public long lastPlayedAt;
+        public int playCount;
+        // Cached yt-dlp metadata besides the fields above; 0 for songs stored before caching
+        public String thumbnailUrl;
+        public String canonicalId;
+        public long metadataFetchedAt;
 
         public StoredSong() {
         }
@@ -91,6 +91,7 @@ public class MediaPlaybackManager {
 
         // Create new session
         PlaybackSession session = new PlaybackSession(trackId, blockPos, totalChunks, chunkDurationMs);
+        applyChunkTimeline(session, chunkDurationMs);
         activeBlockSessions.put(key, session);
         attachBlockEntityRef(session, store, blockPos);
 
@@ -133,6 +134,7 @@ public class MediaPlaybackManager {
                 mediaInfo.thumbnailAssetPath,
                 mediaInfo.url,
                 mediaInfo.duration * 1000L);
+        applyChunkTimeline(session, chunkDurationMs);
         activeBlockSessions.put(key, session);
         attachBlockEntityRef(session, store, blockPos);
 
@@ -173,6 +175,7 @@ public class MediaPlaybackManager {
                 mediaInfo.thumbnailAssetPath,
                 mediaInfo.url,
                 mediaInfo.duration * 1000L);
+        applyChunkTimeline(session, chunkDurationMs);
         session.setLoopEnabled(loopPreferences.getOrDefault(playerId, false));
         session.setVolume(getPlayerVolume(playerId));
         activePlayerSessions.put(playerId, session);
@@ -295,6 +298,37 @@ public class MediaPlaybackManager {
         return toStop.size();
     }
 
+    /**
+     * Move the sessions playing a track onto a new timeline, e.g. ffmpeg's real chunk
+     * boundaries and count once a track that started on its planned layout is ingested.
+     */
+    public void updateTrackTimeline(String trackId, ChunkTimeline timeline) {
+        if (trackId == null || timeline == null) {
+            return;
+        }
+        for (PlaybackSession session : activePlayerSessions.values()) {
+            if (trackId.equals(session.getTrackId())) {
+                session.updateTimeline(timeline);
+            }
+        }
+        for (PlaybackSession session : activeBlockSessions.values()) {
+            if (trackId.equals(session.getTrackId())) {
+                session.updateTimeline(timeline);
+            }
+        }
+    }
+
+    /**
+     * Gives a new session the track's chunk boundaries instead of equal-length chunks.
+     */
+    private void applyChunkTimeline(PlaybackSession session, int chunkDurationMs) {
+        MediaManager mediaManager = plugin.getMediaManager();
+        if (mediaManager != null) {
+            session.updateTimeline(mediaManager.getChunkTimeline(session.getTrackId(), chunkDurationMs,
+                    session.getTotalChunks()));
+        }
+    }
+
     public boolean isLoopEnabled(UUID playerId) {
         return loopPreferences.getOrDefault(playerId, false);
     }
@@ -328,6 +362,7 @@ public class MediaPlaybackManager {
         if (session != null && !session.isStopped()) {
             long targetMs = (long) (progress * session.getTotalDurationMs());
             session.seekToMs(targetMs);
+            prioritizeChunkRegistration();
 
             // If playing, play the new chunk
             if (session.isPlaying()) {
@@ -344,6 +379,7 @@ public class MediaPlaybackManager {
         if (session != null && !session.isStopped()) {
             long targetMs = (long) (progress * session.getTotalDurationMs());
             session.seekToMs(targetMs);
+            prioritizeChunkRegistration();
 
             if (session.isPlaying()) {
                 playCurrentChunk(session, store);
@@ -533,6 +569,10 @@ public class MediaPlaybackManager {
         }
         session.resetMissingAssetRetries();
         session.markChunkStart();
+        MediaManager mediaManager = plugin.getMediaManager();
+        if (mediaManager != null) {
+            mediaManager.refreshUpcomingChunkVolumes(trackId, chunkIndex);
+        }
 
 
         // Lazy load audio_marker role index
@@ -635,15 +675,16 @@ public class MediaPlaybackManager {
         long lagMs = session.getLastScheduleLagMs();
         long overlapMs = BASE_CHUNK_OVERLAP_MS + lagMs;
         overlapMs = Math.min(MAX_CHUNK_OVERLAP_MS, overlapMs);
-        long maxOverlap = Math.max(0, session.getChunkDurationMs() - 5);
+        long chunkDurationMs = session.getCurrentChunkDurationMs();
+        long maxOverlap = Math.max(0, chunkDurationMs - 5);
         overlapMs = Math.min(overlapMs, maxOverlap);
-        long delayMs = Math.max(0, session.getChunkDurationMs() - overlapMs);
+        long delayMs = Math.max(0, chunkDurationMs - overlapMs);
 
         ScheduledFuture<?> future = scheduler.schedule(() -> {
             if (!session.isPlaying()) {
                 return;
             }
-            long expectedEnd = session.getCurrentChunkStartMs() + session.getChunkDurationMs();
+            long expectedEnd = session.getCurrentChunkStartMs() + chunkDurationMs;
             long lag = Math.max(0, System.currentTimeMillis() - expectedEnd);
             session.setLastScheduleLagMs(lag);
             if (session.advanceChunk()) {
@@ -665,6 +706,9 @@ public class MediaPlaybackManager {
 
     private void scheduleMissingAssetRetry(PlaybackSession session, Store<EntityStore> store) {
         int attempts = session.incrementMissingAssetRetries();
+        if (attempts == 1) {
+            prioritizeChunkRegistration();
+        }
         if (attempts > MAX_MISSING_ASSET_RETRIES) {
             plugin.getLogger().at(Level.WARNING).log("SoundEvent still missing after %d attempts, stopping playback.",
                     attempts);
@@ -801,20 +845,57 @@ public class MediaPlaybackManager {
         session.setMarkerEntity(null);
         session.setNPCEntity(null);
 
-        String trackId = session.getTrackId();
-        if (trackId == null || trackId.isEmpty()) {
-            return;
+        // Chunks stay in the chunk cache so the next play of this track is a warm start
+    }
+
+    /**
+     * Current chunk of every session that is playing or paused, grouped by track.
+     */
+    Map<String, java.util.List<Integer>> getPlayheadsByTrack() {
+        Map<String, java.util.List<Integer>> playheads = new java.util.HashMap<>();
+        for (PlaybackSession session : activePlayerSessions.values()) {
+            addPlayhead(playheads, session);
         }
-        if (isTrackActive(trackId)) {
+        for (PlaybackSession session : activeBlockSessions.values()) {
+            addPlayhead(playheads, session);
+        }
+        return playheads;
+    }
+
+    /**
+     * Tracks with a looping session, which wrap back to their first chunk.
+     */
+    java.util.Set<String> getLoopingTracks() {
+        java.util.Set<String> looping = new java.util.HashSet<>();
+        for (PlaybackSession session : activePlayerSessions.values()) {
+            if (session.isLoopEnabled() && !session.isStopped() && session.getTrackId() != null) {
+                looping.add(session.getTrackId());
+            }
+        }
+        for (PlaybackSession session : activeBlockSessions.values()) {
+            if (session.isLoopEnabled() && !session.isStopped() && session.getTrackId() != null) {
+                looping.add(session.getTrackId());
+            }
+        }
+        return looping;
+    }
+
+    private void addPlayhead(Map<String, java.util.List<Integer>> playheads, PlaybackSession session) {
+        if (session.isStopped() || session.getTrackId() == null) {
             return;
         }
+        playheads.computeIfAbsent(session.getTrackId(), key -> new java.util.ArrayList<>())
+                .add(session.getCurrentChunk());
+    }
+
+    private void prioritizeChunkRegistration() {
         MediaManager manager = plugin.getMediaManager();
         if (manager != null) {
-            manager.cleanupRuntimeAssetsAsync(trackId);
+            manager.prioritizeChunkRegistration();
         }
     }
 
-    private boolean isTrackActive(String trackId) {
+    boolean isTrackActive(String trackId) {
         for (PlaybackSession session : activePlayerSessions.values()) {
             if (trackId.equals(session.getTrackId()) && !session.isStopped()) {
                 return true;
@@ -0,0 +1,266 @@
+package dev.cringekid.manager;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Re-chunks an Ogg/Vorbis track without decoding it. The source chunks are read as one
+ * continuous stream of Ogg pages (they come from a single encoder, so only the first
+ * chunk's headers are kept) and cut again on the first page boundary at or after each
+ * split point of the new {@link ChunkLayout}. Every output chunk gets the original
+ * Vorbis headers, its own serial and page sequence, granules counted from the start of
+ * the chunk and freshly computed page checksums. Packets are copied byte for byte, so
+ * the audio is exactly what the segmenter encoded and the work is bound by file I/O.
+ */
+final class OggVorbisSplitter {
+    private static final int PAGE_HEADER_SIZE = 27;
+    private static final int FLAG_CONTINUED = 0x01;
+    private static final int FLAG_FIRST = 0x02;
+    private static final int FLAG_LAST = 0x04;
+    // Identification, comment and setup; audio starts on a fresh page after them
+    private static final int HEADER_PACKETS = 3;
+    private static final int[] CRC_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i << 24;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ 0x04c11db7 : crc << 1;
+            }
+            CRC_TABLE[i] = crc;
+        }
+    }
+
+    /**
+     * One page as found in a source file. {@code granule} is already shifted onto the
+     * whole track; -1 means no packet ends on this page.
+     */
+    private record Page(ByteBuffer data, int flags, long granule) {
+        boolean continued() {
+            return (flags & FLAG_CONTINUED) != 0;
+        }
+    }
+
+    private OggVorbisSplitter() {
+    }
+
+    /**
+     * Cuts {@code sources}, the chunks of one track in order, into chunks following
+     * {@code layout}, written to {@code output.apply(index)}. Returns the new chunks with
+     * their time ranges. Nothing is left behind when it fails.
+     */
+    static List<ChunkSegment> split(List<Path> sources, ChunkLayout layout, IntFunction<Path> output)
+            throws IOException {
+        List<Path> written = new ArrayList<>();
+        try (Arena arena = Arena.ofConfined()) {
+            List<byte[]> headers = null;
+            List<Page> audio = new ArrayList<>();
+            long offset = 0;
+            for (Path source : sources) {
+                ByteBuffer file;
+                try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+                    file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena).asByteBuffer()
+                            .order(ByteOrder.LITTLE_ENDIAN);
+                }
+                List<Page> pages = readPages(file, source);
+                int headerPages = countHeaderPages(pages, source);
+                List<byte[]> sourceHeaders = new ArrayList<>(headerPages);
+                for (int i = 0; i < headerPages; i++) {
+                    sourceHeaders.add(body(pages.get(i).data()));
+                }
+                if (headers == null) {
+                    headers = new ArrayList<>(headerPages);
+                    for (int i = 0; i < headerPages; i++) {
+                        headers.add(copy(pages.get(i).data()));
+                    }
+                } else if (!sameBodies(headers, sourceHeaders)) {
+                    throw new IOException("Vorbis headers of " + source + " differ from the first chunk");
+                }
+                long last = 0;
+                for (Page page : pages.subList(headerPages, pages.size())) {
+                    long granule = page.granule() < 0 ? -1 : offset + page.granule();
+                    audio.add(new Page(page.data(), page.flags(), granule));
+                    last = Math.max(last, Math.max(0, page.granule()));
+                }
+                offset += last;
+            }
+            if (headers == null || audio.isEmpty()) {
+                throw new IOException("No Vorbis audio pages to split");
+            }
+
+            int sampleRate = readSampleRate(headers.get(0));
+            int serialBase = ByteBuffer.wrap(headers.get(0)).order(ByteOrder.LITTLE_ENDIAN).getInt(14);
+
+            List<ChunkSegment> segments = new ArrayList<>();
+            List<Page> current = new ArrayList<>();
+            long chunkStart = 0;
+            long reached = 0;
+            for (Page page : audio) {
+                // Split points are absolute, so page-sized overshoots do not add up
+                long splitAt = layout.startMs(segments.size() + 1) * sampleRate / 1000;
+                if (!current.isEmpty() && !page.continued() && reached >= splitAt) {
+                    segments.add(writeChunk(segments.size(), headers, current, chunkStart, reached, sampleRate,
+                            serialBase, output, written));
+                    current.clear();
+                    chunkStart = reached;
+                }
+                current.add(page);
+                if (page.granule() >= 0) {
+                    reached = page.granule();
+                }
+            }
+            segments.add(writeChunk(segments.size(), headers, current, chunkStart, reached, sampleRate,
+                    serialBase, output, written));
+            return segments;
+        } catch (IOException | RuntimeException e) {
+            for (Path path : written) {
+                Files.deleteIfExists(path);
+            }
+            throw e;
+        }
+    }
+
+    private static ChunkSegment writeChunk(int index, List<byte[]> headers, List<Page> pages, long chunkStart,
+            long chunkEnd, int sampleRate, int serialBase, IntFunction<Path> output, List<Path> written)
+            throws IOException {
+        Path path = output.apply(index);
+        written.add(path);
+        int serial = serialBase + index + 1;
+        int sequence = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (byte[] header : headers) {
+                int flags = sequence == 0 ? FLAG_FIRST : header[5] & FLAG_CONTINUED;
+                writeFully(channel, rewrite(ByteBuffer.wrap(header), flags, 0, serial, sequence++));
+            }
+            for (int i = 0; i < pages.size(); i++) {
+                Page page = pages.get(i);
+                int flags = (page.flags() & FLAG_CONTINUED) | (i == pages.size() - 1 ? FLAG_LAST : 0);
+                long granule = page.granule() < 0 ? -1 : page.granule() - chunkStart;
+                writeFully(channel, rewrite(page.data(), flags, granule, serial, sequence++));
+            }
+        }
+        return new ChunkSegment(index, path.getFileName().toString(), chunkStart / (double) sampleRate,
+                chunkEnd / (double) sampleRate);
+    }
+
+    private static List<Page> readPages(ByteBuffer file, Path source) throws IOException {
+        List<Page> pages = new ArrayList<>();
+        int position = 0;
+        while (position < file.limit()) {
+            if (file.limit() - position < PAGE_HEADER_SIZE || file.getInt(position) != 0x5367674f) {
+                throw new IOException("Bad Ogg page at byte " + position + " of " + source);
+            }
+            int segmentCount = file.get(position + 26) & 0xff;
+            int length = PAGE_HEADER_SIZE + segmentCount;
+            if (position + length > file.limit()) {
+                throw new IOException("Truncated Ogg page at byte " + position + " of " + source);
+            }
+            for (int i = 0; i < segmentCount; i++) {
+                length += file.get(position + PAGE_HEADER_SIZE + i) & 0xff;
+            }
+            if (position + length > file.limit()) {
+                throw new IOException("Truncated Ogg page at byte " + position + " of " + source);
+            }
+            pages.add(new Page(file.slice(position, length).order(ByteOrder.LITTLE_ENDIAN),
+                    file.get(position + 5) & 0xff, file.getLong(position + 6)));
+            position += length;
+        }
+        return pages;
+    }
+
+    /**
+     * Pages up to and including the one that ends the setup header.
+     */
+    private static int countHeaderPages(List<Page> pages, Path source) throws IOException {
+        int packets = 0;
+        for (int i = 0; i < pages.size(); i++) {
+            ByteBuffer data = pages.get(i).data();
+            int segmentCount = data.get(26) & 0xff;
+            for (int s = 0; s < segmentCount; s++) {
+                if ((data.get(PAGE_HEADER_SIZE + s) & 0xff) < 255) {
+                    packets++;
+                }
+            }
+            if (packets >= HEADER_PACKETS) {
+                return i + 1;
+            }
+        }
+        throw new IOException("Incomplete Vorbis headers in " + source);
+    }
+
+    private static int readSampleRate(byte[] firstPage) throws IOException {
+        ByteBuffer page = ByteBuffer.wrap(firstPage).order(ByteOrder.LITTLE_ENDIAN);
+        int body = PAGE_HEADER_SIZE + (page.get(26) & 0xff);
+        if (firstPage.length < body + 16 || page.get(body) != 1
+                || !"vorbis".equals(new String(firstPage, body + 1, 6, java.nio.charset.StandardCharsets.US_ASCII))) {
+            throw new IOException("Not a Vorbis stream");
+        }
+        int sampleRate = page.getInt(body + 12);
+        if (sampleRate <= 0) {
+            throw new IOException("Invalid Vorbis sample rate " + sampleRate);
+        }
+        return sampleRate;
+    }
+
+    /**
+     * Copy of a page with new flags, granule, serial and sequence number and the
+     * checksum recomputed to match.
+     */
+    private static ByteBuffer rewrite(ByteBuffer source, int flags, long granule, int serial, int sequence) {
+        byte[] bytes = copy(source);
+        ByteBuffer page = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        page.put(5, (byte) flags);
+        page.putLong(6, granule);
+        page.putInt(14, serial);
+        page.putInt(18, sequence);
+        page.putInt(22, 0);
+        int crc = 0;
+        for (byte b : bytes) {
+            crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ b) & 0xff];
+        }
+        page.putInt(22, crc);
+        return page;
+    }
+
+    private static byte[] copy(ByteBuffer page) {
+        byte[] bytes = new byte[page.remaining()];
+        page.get(page.position(), bytes);
+        return bytes;
+    }
+
+    private static byte[] body(ByteBuffer page) {
+        int start = PAGE_HEADER_SIZE + (page.get(26) & 0xff);
+        byte[] bytes = new byte[page.remaining() - start];
+        page.get(page.position() + start, bytes);
+        return bytes;
+    }
+
+    private static boolean sameBodies(List<byte[]> pages, List<byte[]> bodies) {
+        if (pages.size() != bodies.size()) {
+            return false;
+        }
+        for (int i = 0; i < pages.size(); i++) {
+            if (!Arrays.equals(body(ByteBuffer.wrap(pages.get(i)).order(ByteOrder.LITTLE_ENDIAN)), bodies.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -24,9 +24,9 @@ public class PlaybackSession {
     private final String artist;
     private final String thumbnailUrl;
     private final String url;
-    private final int totalChunks;
-    private final int chunkDurationMs;
-    private final long totalDurationMs;
+    private int totalChunks;
+    private volatile ChunkTimeline timeline;
+    private final long reportedDurationMs;
     private float volume = VolumeUtil.percentToEventDb(VolumeUtil.DEFAULT_PERCENT); // decibels
 
     private Ref<EntityStore> markerEntity;
@@ -59,8 +59,8 @@ public class PlaybackSession {
         this.thumbnailUrl = thumbnailUrl != null ? thumbnailUrl : "";
         this.url = url != null ? url : "";
         this.totalChunks = totalChunks;
-        this.chunkDurationMs = chunkDurationMs;
-        this.totalDurationMs = durationMs > 0 ? durationMs : (long) totalChunks * chunkDurationMs;
+        this.timeline = ChunkTimeline.planned(ChunkLayout.uniform(chunkDurationMs), totalChunks);
+        this.reportedDurationMs = durationMs;
         this.volume = VolumeUtil.percentToEventDb(VolumeUtil.DEFAULT_PERCENT);
     }
 
@@ -74,8 +74,8 @@ public class PlaybackSession {
         this.thumbnailUrl = thumbnailUrl != null ? thumbnailUrl : "";
         this.url = url != null ? url : "";
         this.totalChunks = totalChunks;
-        this.chunkDurationMs = chunkDurationMs;
-        this.totalDurationMs = durationMs > 0 ? durationMs : (long) totalChunks * chunkDurationMs;
+        this.timeline = ChunkTimeline.planned(ChunkLayout.uniform(chunkDurationMs), totalChunks);
+        this.reportedDurationMs = durationMs;
         this.volume = VolumeUtil.percentToEventDb(VolumeUtil.DEFAULT_PERCENT);
     }
 
@@ -117,12 +117,31 @@ public class PlaybackSession {
         return totalChunks;
     }
 
-    public int getChunkDurationMs() {
-        return chunkDurationMs;
+    /**
+     * Switch to the track's chunk boundaries, e.g. the real ones once a streamed track
+     * has finished ingesting. Also updates the chunk count.
+     */
+    public void updateTimeline(ChunkTimeline timeline) {
+        if (timeline == null || timeline.getChunkCount() <= 0) {
+            return;
+        }
+        this.timeline = timeline;
+        this.totalChunks = timeline.getChunkCount();
+        if (currentChunk >= totalChunks) {
+            currentChunk = totalChunks - 1;
+        }
+    }
+
+    public ChunkTimeline getTimeline() {
+        return timeline;
+    }
+
+    public long getCurrentChunkDurationMs() {
+        return timeline.getDurationMs(currentChunk);
     }
 
     public long getTotalDurationMs() {
-        return totalDurationMs;
+        return reportedDurationMs > 0 ? reportedDurationMs : timeline.getTotalMs();
     }
 
     public float getVolume() {
@@ -242,14 +261,16 @@ public class PlaybackSession {
      * Seek to a specific time in milliseconds
      */
     public void seekToMs(long positionMs) {
+        long totalDurationMs = getTotalDurationMs();
         if (positionMs < 0)
             positionMs = 0;
         if (positionMs > totalDurationMs)
             positionMs = totalDurationMs - 1;
 
-        int targetChunk = (int) (positionMs / chunkDurationMs);
+        ChunkTimeline chunks = timeline;
+        int targetChunk = chunks.chunkAt(positionMs);
         setCurrentChunk(targetChunk);
-        long offsetInChunk = positionMs - ((long) targetChunk * chunkDurationMs);
+        long offsetInChunk = Math.max(0, positionMs - chunks.getStartMs(targetChunk));
 
         if (isPaused) {
             pausedOffsetMs = offsetInChunk;
@@ -268,7 +289,7 @@ public class PlaybackSession {
      */
     public void seekToChunk(int chunk) {
         setCurrentChunk(chunk);
-        seekToMs((long) chunk * chunkDurationMs);
+        seekToMs(timeline.getStartMs(chunk));
     }
 
     /**
@@ -278,14 +299,15 @@ public class PlaybackSession {
         if (isStopped)
             return 0;
         long offsetInChunk = isPaused ? pausedOffsetMs : Math.max(0, System.currentTimeMillis() - currentChunkStartMs);
-        long position = ((long) currentChunk * chunkDurationMs) + offsetInChunk;
-        return Math.min(position, totalDurationMs);
+        long position = timeline.getStartMs(currentChunk) + offsetInChunk;
+        return Math.min(position, getTotalDurationMs());
     }
 
     /**
      * Get playback progress as 0.0 to 1.0
      */
     public double getProgress() {
+        long totalDurationMs = getTotalDurationMs();
         if (totalDurationMs == 0)
             return 0;
         return Math.min(1.0, (double) getCurrentPositionMs() / totalDurationMs);
@@ -0,0 +1,123 @@
+package dev.cringekid.manager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hands out the entries of imported playlists a few at a time, so a 200-song import
+ * never has more than that many entries in flight. It owns no threads: the worker
+ * starts each entry's work on the shared media pools and the next entry is handed out
+ * when it completes. Entries go in playlist order, since the top of a playlist is what
+ * gets played first, and an entry somebody asks to play jumps the queue.
+ */
+final class PlaylistImporter {
+
+    interface EntryWorker {
+        /**
+         * Starts the work for an entry; the future completes when it is done, either way.
+         */
+        CompletableFuture<?> process(Entry entry);
+    }
+
+    /**
+     * @param listed         the entry as the playlist listed it
+     * @param prefetch       whether to split and register it too, not only download it
+     * @param libraryUpdates runs library changes where the library may be modified
+     */
+    record Entry(String ownerId, MediaInfo listed, int index, boolean prefetch,
+            Consumer<Runnable> libraryUpdates) {
+    }
+
+    private record Job(Entry entry, boolean urgent, long sequence) {
+    }
+
+    private static final Comparator<Job> ORDER = Comparator.comparing((Job job) -> !job.urgent())
+            .thenComparingInt(job -> job.entry().index())
+            .thenComparingLong(Job::sequence);
+
+    private final int concurrency;
+    private final EntryWorker worker;
+    private final PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>(64, ORDER);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile boolean shutdown;
+
+    /**
+     * @param concurrency entries in flight at once
+     */
+    PlaylistImporter(int concurrency, EntryWorker worker) {
+        this.concurrency = Math.max(1, concurrency);
+        this.worker = worker;
+    }
+
+    void submit(List<Entry> entries) {
+        for (Entry entry : entries) {
+            queue.add(new Job(entry, false, sequence.incrementAndGet()));
+        }
+        dispatch();
+    }
+
+    /**
+     * Moves the queued entries of a track to the front, e.g. when it is requested for
+     * playback before its turn came.
+     */
+    void prioritize(String trackId) {
+        for (Job job : queue) {
+            if (!job.urgent() && trackId.equals(job.entry().listed().trackId) && queue.remove(job)) {
+                queue.add(new Job(job.entry(), true, job.sequence()));
+            }
+        }
+    }
+
+    int getQueuedCount() {
+        return queue.size();
+    }
+
+    int getActiveCount() {
+        return active.get();
+    }
+
+    void shutdown() {
+        shutdown = true;
+        queue.clear();
+    }
+
+    private void dispatch() {
+        while (!shutdown) {
+            // Claim a slot before taking an entry, so concurrent calls cannot overshoot
+            int current = active.get();
+            if (current >= concurrency || !active.compareAndSet(current, current + 1)) {
+                if (current >= concurrency) {
+                    return;
+                }
+                continue;
+            }
+            // Whatever is most urgent at this moment
+            Job job = queue.poll();
+            if (job == null) {
+                active.decrementAndGet();
+                // An entry queued while the slot was claimed would otherwise wait for the next completion
+                if (queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            CompletableFuture<?> work;
+            try {
+                work = worker.process(job.entry());
+            } catch (RuntimeException e) {
+                // The worker reports failures on the entry itself
+                work = CompletableFuture.completedFuture(null);
+            }
+            work.whenComplete((result, error) -> {
+                active.decrementAndGet();
+                dispatch();
+            });
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package dev.cringekid.manager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bookkeeping for every asset the runtime pack has registered, grouped by track. When
+ * the registered bytes go over the budget, the least recently used tracks that nobody
+ * is playing are evicted until they fit again. Eviction drops a track's chunks, their
+ * SoundEvents and its model; the chunk files stay cached, so playing the track again is
+ * a warm start. Thumbnails are counted but stay registered, as the library pages show
+ * them whether or not a track is loaded.
+ */
+final class RuntimeAssetRegistry {
+
+    enum Kind {
+        CHUNK, MODEL, THUMBNAIL
+    }
+
+    private record Asset(Kind kind, long bytes) {
+    }
+
+    private static final class TrackAssets {
+        private final Map<String, Asset> assets = new HashMap<>();
+        private volatile long lastUsedAt = System.currentTimeMillis();
+    }
+
+    private final LongSupplier budgetBytes;
+    private final Predicate<String> inUse;
+    private final Consumer<String> evictor;
+    private final Map<String, TrackAssets> tracks = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+    private volatile long evictions = 0;
+
+    /**
+     * @param budgetBytes registered bytes to stay under; 0 or less disables eviction
+     * @param inUse       whether a track is playing or still being ingested
+     * @param evictor     unregisters a track's chunks and model, reporting them back through
+     *                    {@link #remove}
+     */
+    RuntimeAssetRegistry(LongSupplier budgetBytes, Predicate<String> inUse, Consumer<String> evictor) {
+        this.budgetBytes = budgetBytes;
+        this.inUse = inUse;
+        this.evictor = evictor;
+    }
+
+    /**
+     * Records a registered asset, or its new size if it was registered before. Call
+     * {@link #enforceBudget} once the batch it belongs to is registered.
+     */
+    void add(String trackId, String assetName, Kind kind, long bytes) {
+        TrackAssets track = tracks.computeIfAbsent(trackId, key -> new TrackAssets());
+        synchronized (track) {
+            track.assets.put(assetName, new Asset(kind, bytes));
+            track.lastUsedAt = System.currentTimeMillis();
+        }
+    }
+
+    void remove(String trackId, String assetName) {
+        TrackAssets track = tracks.get(trackId);
+        if (track == null) {
+            return;
+        }
+        synchronized (track) {
+            track.assets.remove(assetName);
+            if (track.assets.isEmpty()) {
+                tracks.remove(trackId, track);
+            }
+        }
+    }
+
+    /**
+     * Marks a track as just used, e.g. when a session starts it.
+     */
+    void touch(String trackId) {
+        TrackAssets track = tracks.get(trackId);
+        if (track != null) {
+            track.lastUsedAt = System.currentTimeMillis();
+        }
+    }
+
+    long getTotalBytes() {
+        long total = 0;
+        for (TrackAssets track : tracks.values()) {
+            total += bytes(track, null);
+        }
+        return total;
+    }
+
+    /**
+     * One-line occupancy summary, for the setup command.
+     */
+    String describe() {
+        int[] counts = new int[Kind.values().length];
+        long total = 0;
+        for (TrackAssets track : tracks.values()) {
+            synchronized (track) {
+                for (Asset asset : track.assets.values()) {
+                    counts[asset.kind().ordinal()]++;
+                    total += asset.bytes();
+                }
+            }
+        }
+        long budget = budgetBytes.getAsLong();
+        return String.format("runtime assets for %d tracks: %d chunks, %d models, %d thumbnails, %.1f MB of %s; "
+                        + "%d tracks evicted",
+                tracks.size(), counts[Kind.CHUNK.ordinal()], counts[Kind.MODEL.ordinal()],
+                counts[Kind.THUMBNAIL.ordinal()], total / (1024.0 * 1024.0),
+                budget > 0 ? String.format("%.0f MB", budget / (1024.0 * 1024.0)) : "no budget", evictions);
+    }
+
+    /**
+     * Evicts idle tracks, least recently used first, until the registered bytes fit the
+     * budget again. {@code addedTrackId}, the track that just grew, is never evicted.
+     */
+    void enforceBudget(String addedTrackId) {
+        long budget = budgetBytes.getAsLong();
+        // Evicting unregisters assets, which must not start another round
+        if (budget <= 0 || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long total = getTotalBytes();
+            while (total > budget) {
+                String victim = leastRecentlyUsedIdle(addedTrackId);
+                if (victim == null) {
+                    return;
+                }
+                long before = bytes(tracks.get(victim), null);
+                evictor.accept(victim);
+                long freed = before - bytes(tracks.get(victim), null);
+                evictions++;
+                if (freed <= 0) {
+                    return;
+                }
+                total -= freed;
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private String leastRecentlyUsedIdle(String excludedTrackId) {
+        String victim = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<String, TrackAssets> entry : tracks.entrySet()) {
+            String trackId = entry.getKey();
+            TrackAssets track = entry.getValue();
+            long lastUsedAt = track.lastUsedAt;
+            // A track with only its thumbnail left has nothing to evict
+            if (lastUsedAt < oldest && !trackId.equals(excludedTrackId)
+                    && bytes(track, null) > bytes(track, Kind.THUMBNAIL) && !inUse.test(trackId)) {
+                victim = trackId;
+                oldest = lastUsedAt;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Bytes of a track's assets of one kind, or of all kinds when {@code kind} is null.
+     */
+    private static long bytes(TrackAssets track, Kind kind) {
+        if (track == null) {
+            return 0;
+        }
+        long total = 0;
+        synchronized (track) {
+            for (Asset asset : track.assets.values()) {
+                if (kind == null || asset.kind() == kind) {
+                    total += asset.bytes();
+                }
+            }
+        }
+        return total;
+    }
+}
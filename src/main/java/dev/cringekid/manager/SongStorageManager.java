@@ -0,0 +1,174 @@
+package dev.cringekid.manager;
+
+import dev.cringekid.MediaRadioPlugin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * Keeps the {@code songs/} audio store under its configured quota. Whenever a track is
+ * stored, a background pass totals the directory and, while it is over quota, evicts the
+ * stored song that was least recently played (LRU) or least often played (LFU). Songs
+ * saved in any player's library and songs that are playing, downloading or being split
+ * are never evicted; an evicted song is simply downloaded again when next requested.
+ */
+final class SongStorageManager {
+
+    enum Policy {
+        LRU, LFU
+    }
+
+    private record Candidate(String trackId, long bytes, long lastPlayedAt, int playCount) {
+    }
+
+    private final MediaRadioPlugin plugin;
+    private final Path storagePath;
+    private final Map<String, MediaManager.StoredSong> storedSongs;
+    private final Predicate<String> inUse;
+    private final Consumer<String> evictor;
+    private final Executor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private volatile long storedBytes = -1;
+    private volatile String lastRun = "not run yet";
+
+    /**
+     * @param inUse    whether a track is playing or its audio is being written
+     * @param evictor  deletes a stored song's audio and cached chunks and forgets it
+     * @param executor runs the eviction passes
+     */
+    SongStorageManager(MediaRadioPlugin plugin, Path storagePath, Map<String, MediaManager.StoredSong> storedSongs,
+            Predicate<String> inUse, Consumer<String> evictor, Executor executor) {
+        this.plugin = plugin;
+        this.storagePath = storagePath;
+        this.storedSongs = storedSongs;
+        this.inUse = inUse;
+        this.evictor = evictor;
+        this.executor = executor;
+    }
+
+    /**
+     * Runs an eviction pass in the background. Calls made while one is pending are
+     * folded into it.
+     */
+    void scheduleEnforce() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            scheduled.set(false);
+            try {
+                enforce();
+            } catch (RuntimeException e) {
+                plugin.getLogger().at(Level.WARNING).withCause(e).log("Song storage eviction failed");
+            }
+        });
+    }
+
+    /**
+     * One-line summary of the audio store, for the setup command.
+     */
+    String describe() {
+        long bytes = storedBytes;
+        return String.format("song storage %s, last eviction pass: %s",
+                bytes < 0 ? "not measured" : String.format("%.1f MB", bytes / (1024.0 * 1024.0)), lastRun);
+    }
+
+    private void enforce() {
+        var config = plugin.getConfig();
+        long quota = config != null ? config.getSongStorageQuotaMb() * 1024L * 1024L : 0L;
+        Policy policy = config != null && "LFU".equalsIgnoreCase(config.getSongEvictionPolicy())
+                ? Policy.LFU
+                : Policy.LRU;
+        long total = directorySize();
+        storedBytes = total;
+        if (quota <= 0 || total <= quota) {
+            return;
+        }
+
+        List<Candidate> candidates = collectCandidates();
+        Comparator<Candidate> order = policy == Policy.LFU
+                ? Comparator.comparingInt(Candidate::playCount).thenComparingLong(Candidate::lastPlayedAt)
+                : Comparator.comparingLong(Candidate::lastPlayedAt);
+        candidates.sort(order);
+
+        long freed = 0;
+        int evicted = 0;
+        for (Candidate candidate : candidates) {
+            if (total - freed <= quota) {
+                break;
+            }
+            // Started playing since the candidates were collected
+            if (inUse.test(candidate.trackId())) {
+                continue;
+            }
+            evictor.accept(candidate.trackId());
+            freed += candidate.bytes();
+            evicted++;
+        }
+        storedBytes = total - freed;
+        lastRun = String.format("%s evicted %d songs, freed %.1f MB", policy, evicted, freed / (1024.0 * 1024.0));
+        plugin.getLogger().at(total - freed > quota ? Level.WARNING : Level.INFO).log(
+                "Song storage was %.1f MB of %.1f MB quota; %s", total / (1024.0 * 1024.0),
+                quota / (1024.0 * 1024.0), lastRun);
+    }
+
+    private List<Candidate> collectCandidates() {
+        Set<String> referenced = new HashSet<>();
+        var library = plugin.getMediaLibrary();
+        if (library != null) {
+            for (var song : library.getAllSongs()) {
+                if (song.trackId != null) {
+                    referenced.add(song.trackId);
+                }
+                if (song.url != null) {
+                    referenced.add(song.url);
+                }
+            }
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        for (MediaManager.StoredSong song : storedSongs.values()) {
+            if (song.trackId == null || song.audioFile == null || referenced.contains(song.trackId)
+                    || (song.url != null && referenced.contains(song.url)) || inUse.test(song.trackId)) {
+                continue;
+            }
+            Path audio = storagePath.resolve(song.audioFile);
+            try {
+                long bytes = Files.size(audio);
+                // Songs stored before play tracking count as last played when they were stored
+                long lastPlayedAt = song.lastPlayedAt > 0
+                        ? song.lastPlayedAt
+                        : Files.getLastModifiedTime(audio).toMillis();
+                candidates.add(new Candidate(song.trackId, bytes, lastPlayedAt, song.playCount));
+            } catch (IOException ignored) {
+                // Not stored (any more); nothing to free
+            }
+        }
+        return candidates;
+    }
+
+    private long directorySize() {
+        long total = 0;
+        try (java.util.stream.Stream<Path> stream = Files.list(storagePath)) {
+            for (Path path : (Iterable<Path>) stream::iterator) {
+                if (Files.isRegularFile(path)) {
+                    total += Files.size(path);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().at(Level.WARNING).withCause(e).log("Failed to measure song storage");
+        }
+        return total;
+    }
+}
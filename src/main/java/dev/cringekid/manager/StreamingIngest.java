@@ -0,0 +1,383 @@
+package dev.cringekid.manager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+import javax.annotation.Nullable;
+
+/**
+ * Runs the ffmpeg segmenters for one track and reports every chunk as soon as ffmpeg
+ * closes it. ffmpeg writes its segment list to stdout, so there is no polling of the
+ * chunk directory. For tracks that are not stored yet yt-dlp runs in front of a single
+ * ffmpeg as a pipeline, writing the raw audio stream to stdout for ffmpeg to read from
+ * stdin. Stored tracks can be split by several ffmpeg workers at once, each covering
+ * one time range of the file. If their chunks do not line up at a range boundary the
+ * track is split again by a single worker.
+ */
+final class StreamingIngest {
+    // Upper bound on segments handed to the listener in one call when ffmpeg runs far
+    // ahead of registration (stored files split much faster than real time)
+    private static final int MAX_SEGMENT_BATCH = 100;
+    // Lines of a failed worker's stderr quoted in the failure
+    private static final int STDERR_TAIL_LINES = 20;
+
+    interface Listener {
+        void onChunksReady(List<ChunkSegment> segments);
+    }
+
+    /**
+     * Decides the ffmpeg workers once the ingest thread is running, so slow planning
+     * such as a loudness pass does not hold up the caller.
+     */
+    interface SplitPlanner {
+        List<SplitRange> plan() throws Exception;
+    }
+
+    /**
+     * One ffmpeg segmenter. Its segment list counts chunks and times from the start of
+     * its range; both are shifted back onto the whole track.
+     */
+    record SplitRange(List<String> ffmpegCommand, int firstChunk, int maxChunks, double startSeconds) {
+        static SplitRange whole(List<String> ffmpegCommand) {
+            return new SplitRange(ffmpegCommand, 0, Integer.MAX_VALUE, 0.0);
+        }
+    }
+
+    /**
+     * Workers of a parallel split disagree with each other on where chunks fall.
+     */
+    private static final class SplitMismatchException extends IllegalStateException {
+        SplitMismatchException(String message) {
+            super(message);
+        }
+    }
+
+    private final String trackId;
+    private final List<String> ytDlpCommand;
+    private final SplitPlanner planner;
+    private final SplitPlanner fallbackPlanner;
+    private final Path errorLog;
+    private final Path ffmpegLog;
+    private final BiFunction<String, Integer, RuntimeException> ytDlpFailure;
+    private final IngestJob job;
+    private final long timeoutMs;
+    private final Listener listener;
+    private final CompletableFuture<Integer> playable;
+    private final CompletableFuture<Integer> completion = new CompletableFuture<>();
+    private final List<ChunkSegment> segments = new ArrayList<>();
+    private final List<Process> processes = new ArrayList<>();
+    private Executor readerPool;
+    private int workerCount;
+
+    /**
+     * @param ytDlpCommand download command feeding ffmpeg's stdin, or null when ffmpeg
+     *                     reads a stored file directly. Requires a single split range.
+     * @param fallbackPlanner single split range used when the workers of a parallel
+     *                     split do not line up; asked only after {@code planner}. Null
+     *                     fails the ingest instead.
+     * @param ffmpegLog    where the first segmenter's stderr goes, e.g. to pick up the
+     *                     loudness it measured; left for the owner to read and delete.
+     *                     Null gives it a log of its own like the other workers, which
+     *                     is quoted if the worker fails and deleted afterwards.
+     * @param job          starts the processes, which it kills on cancellation or failure
+     * @param timeoutMs    wall-clock limit for the whole ingest; 0 or less for none
+     */
+    StreamingIngest(String trackId, @Nullable List<String> ytDlpCommand, SplitPlanner planner,
+            @Nullable SplitPlanner fallbackPlanner, Path errorLog, @Nullable Path ffmpegLog,
+            BiFunction<String, Integer, RuntimeException> ytDlpFailure,
+            IngestJob job, long timeoutMs, CompletableFuture<Integer> playable, Listener listener) {
+        this.trackId = trackId;
+        this.ytDlpCommand = ytDlpCommand;
+        this.planner = planner;
+        this.fallbackPlanner = fallbackPlanner;
+        this.errorLog = errorLog;
+        this.ffmpegLog = ffmpegLog;
+        this.ytDlpFailure = ytDlpFailure;
+        this.job = job;
+        this.timeoutMs = timeoutMs;
+        this.playable = playable;
+        this.listener = listener;
+    }
+
+    /**
+     * Completed by the owner once enough chunks are registered for playback to start.
+     */
+    CompletableFuture<Integer> getPlayable() {
+        return playable;
+    }
+
+    /**
+     * Completes with the final chunk count once every process has exited.
+     */
+    CompletableFuture<Integer> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Every segment reported so far, in chunk order. Complete once the completion
+     * future is.
+     */
+    synchronized List<ChunkSegment> getSegments() {
+        List<ChunkSegment> sorted = new ArrayList<>(segments);
+        sorted.sort(Comparator.comparingInt(ChunkSegment::index));
+        return sorted;
+    }
+
+    /**
+     * Runs the ingest on {@code runner}, occupying one of its threads until every process
+     * has exited; the segment lists of any further workers are read on {@code readers}.
+     */
+    void start(Executor runner, Executor readers) {
+        this.readerPool = readers;
+        try {
+            runner.execute(this::run);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            completion.completeExceptionally(e);
+        }
+    }
+
+    private void run() {
+        try {
+            List<SplitRange> ranges = planner.plan();
+            if (ranges.isEmpty() || (ytDlpCommand != null && ranges.size() != 1)) {
+                throw new IllegalStateException("Invalid split plan for " + trackId + ": " + ranges.size() + " ranges");
+            }
+            int chunkCount;
+            try {
+                chunkCount = split(ranges);
+            } catch (SplitMismatchException e) {
+                if (ranges.size() == 1 || fallbackPlanner == null || job.isCancelled() || job.hasTimedOut()) {
+                    throw e;
+                }
+                // Chunks already reported are split again under the same names and reported again
+                synchronized (this) {
+                    segments.clear();
+                }
+                List<SplitRange> single = fallbackPlanner.plan();
+                if (single.size() != 1) {
+                    throw new IllegalStateException("Invalid fallback split plan for " + trackId + ": "
+                            + single.size() + " ranges", e);
+                }
+                chunkCount = split(single);
+            }
+            completion.complete(chunkCount);
+        } catch (Throwable e) {
+            // Processes killed for cancellation or a timeout fail with whatever error comes first
+            Throwable failure = job.explain(e);
+            job.killAll();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            completion.completeExceptionally(failure);
+        } finally {
+            try {
+                Files.deleteIfExists(errorLog);
+                for (int i = 0; i < workerCount; i++) {
+                    if (i != 0 || ffmpegLog == null) {
+                        Files.deleteIfExists(stderrLog(i));
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Runs the segmenters for the given ranges to the end and returns the chunk count.
+     * A mismatch between workers stops all of them before it is thrown, once none can
+     * report another chunk.
+     */
+    private int split(List<SplitRange> ranges) throws Exception {
+        List<Process> splitters = startProcesses(ranges);
+
+        // Every worker's segment list is read on its own thread; the first on this one
+        List<CompletableFuture<Void>> readers = new ArrayList<>();
+        for (int i = 1; i < ranges.size(); i++) {
+            SplitRange range = ranges.get(i);
+            Process process = splitters.get(i);
+            readers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    readSegmentList(process, range);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, readerPool).whenComplete((ignored, err) -> {
+                if (err != null) {
+                    // Stop the other workers instead of letting them finish a doomed split
+                    job.killAll();
+                }
+            }));
+        }
+        try {
+            readSegmentList(splitters.get(0), ranges.get(0));
+            for (CompletableFuture<Void> reader : readers) {
+                reader.join();
+            }
+        } catch (SplitMismatchException | CompletionException e) {
+            job.killAll();
+            for (CompletableFuture<Void> reader : readers) {
+                reader.handle((ignored, err) -> null).join();
+            }
+            throw e instanceof CompletionException && e.getCause() instanceof SplitMismatchException mismatch
+                    ? mismatch
+                    : e;
+        }
+
+        int[] exitCodes = new int[splitters.size()];
+        for (int i = 0; i < splitters.size(); i++) {
+            exitCodes[i] = job.waitFor(splitters.get(i));
+        }
+        if (ytDlpCommand != null) {
+            int ytDlpExit = job.waitFor(processes.get(0));
+            if (ytDlpExit != 0) {
+                throw ytDlpFailure.apply(readErrorLog(), ytDlpExit);
+            }
+        }
+        for (int i = 0; i < exitCodes.length; i++) {
+            if (exitCodes[i] != 0) {
+                throw new RuntimeException("ffmpeg worker " + i + " exited with code " + exitCodes[i]
+                        + stderrTail(i));
+            }
+        }
+        List<ChunkSegment> ordered = getSegments();
+        for (int i = 0; i < ordered.size(); i++) {
+            if (ordered.get(i).index() != i) {
+                throw new SplitMismatchException("Split workers left a gap at chunk " + i + " of " + trackId
+                        + stderrTail(workerCovering(ranges, i)));
+            }
+        }
+        return ordered.size();
+    }
+
+    /**
+     * Starts yt-dlp and the segmenters and returns the segmenters in range order.
+     */
+    private List<Process> startProcesses(List<SplitRange> ranges) {
+        List<Process> splitters = new ArrayList<>(ranges.size());
+        // A fallback split keeps counting the earlier workers so their logs are deleted
+        workerCount = Math.max(workerCount, ranges.size());
+        try {
+            if (ytDlpCommand != null) {
+                ProcessBuilder ytDlp = new ProcessBuilder(ytDlpCommand);
+                ytDlp.redirectError(errorLog.toFile());
+                ProcessBuilder ffmpeg = new ProcessBuilder(ranges.get(0).ffmpegCommand());
+                ffmpeg.redirectError(stderrFor(0));
+                List<Process> pipeline = job.startPipeline(List.of(ytDlp, ffmpeg), "Streaming ingest", timeoutMs);
+                synchronized (processes) {
+                    processes.addAll(pipeline);
+                }
+                splitters.add(pipeline.get(1));
+                return splitters;
+            }
+            for (SplitRange range : ranges) {
+                ProcessBuilder ffmpeg = new ProcessBuilder(range.ffmpegCommand());
+                ffmpeg.redirectError(stderrFor(splitters.size()));
+                Process process = job.start(ffmpeg, "Split", timeoutMs);
+                synchronized (processes) {
+                    processes.add(process);
+                }
+                splitters.add(process);
+            }
+            return splitters;
+        } catch (IOException e) {
+            throw new RuntimeException("yt-dlp/ffmpeg not available for chunk ingest. Embedded tools failed to execute.",
+                    e);
+        }
+    }
+
+    private ProcessBuilder.Redirect stderrFor(int worker) {
+        return ProcessBuilder.Redirect.to(stderrLog(worker).toFile());
+    }
+
+    private Path stderrLog(int worker) {
+        return worker == 0 && ffmpegLog != null
+                ? ffmpegLog
+                : errorLog.resolveSibling(trackId + ".ffmpeg-" + worker + ".log");
+    }
+
+    /**
+     * The end of a worker's stderr, to go with its failure.
+     */
+    private String stderrTail(int worker) {
+        try {
+            List<String> lines = Files.readAllLines(stderrLog(worker), StandardCharsets.UTF_8);
+            if (lines.isEmpty()) {
+                return "";
+            }
+            return ":\n" + String.join("\n", lines.subList(Math.max(0, lines.size() - STDERR_TAIL_LINES),
+                    lines.size()));
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static int workerCovering(List<SplitRange> ranges, int chunk) {
+        for (int i = ranges.size() - 1; i > 0; i--) {
+            if (chunk >= ranges.get(i).firstChunk()) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * ffmpeg appends a csv line each time it closes a segment. Lines that arrive together
+     * are handed over as one batch so registration happens per burst, not per chunk.
+     */
+    private void readSegmentList(Process ffmpegProcess, SplitRange range) throws IOException {
+        List<ChunkSegment> pending = new ArrayList<>();
+        int reported = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(ffmpegProcess.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    if (reported >= range.maxChunks()) {
+                        throw new SplitMismatchException("Split worker for " + trackId + " ran past chunk "
+                                + (range.firstChunk() + range.maxChunks() - 1));
+                    }
+                    ChunkSegment local = ChunkSegment.parseCsv(reported, line.trim());
+                    pending.add(new ChunkSegment(range.firstChunk() + reported, local.fileName(),
+                            range.startSeconds() + local.startSeconds(), range.startSeconds() + local.endSeconds()));
+                    reported++;
+                }
+                if (!pending.isEmpty() && (!reader.ready() || pending.size() >= MAX_SEGMENT_BATCH)) {
+                    publish(pending);
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            publish(pending);
+        }
+    }
+
+    /**
+     * Workers publish one at a time, so the listener never runs concurrently with itself.
+     */
+    private synchronized void publish(List<ChunkSegment> pending) {
+        List<ChunkSegment> batch = List.copyOf(pending);
+        pending.clear();
+        segments.addAll(batch);
+        listener.onChunksReady(batch);
+    }
+
+    private String readErrorLog() {
+        try {
+            return Files.exists(errorLog) ? Files.readString(errorLog, StandardCharsets.UTF_8) : "";
+        } catch (IOException e) {
+            return "";
+        }
+    }
+}
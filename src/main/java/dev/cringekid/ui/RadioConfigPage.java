@@ -20,6 +20,7 @@ import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import dev.cringekid.MediaRadioPlugin;
 import com.hypixel.hytale.server.core.Message;
+import dev.cringekid.manager.MediaManager;
 import dev.cringekid.manager.PlaybackSession;
 import dev.cringekid.util.VolumeUtil;
 
@@ -40,6 +41,11 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
     private static final Map<UUID, Long> LAST_VOLUME_CHANGE_MS = new ConcurrentHashMap<>();
     private static final Map<UUID, Boolean> VOLUME_EDITING = new ConcurrentHashMap<>();
     private static final Map<UUID, Boolean> BOOMBOX_UI_OPEN = new ConcurrentHashMap<>();
+    // Library owner of the page each player has open, so background updates only refresh that page
+    private static final Map<UUID, String> OPEN_LIBRARY_PAGES = new ConcurrentHashMap<>();
+    // Background library updates refresh the page at most this often
+    private static final long REFRESH_DEBOUNCE_MS = 500;
+    private static final Map<UUID, ScheduledFuture<?>> PENDING_REFRESHES = new ConcurrentHashMap<>();
     private static final int VOLUME_STEP_PERCENT = 10;
     private static final int VOLUME_DEFAULT_PERCENT = VolumeUtil.DEFAULT_PERCENT;
 
@@ -63,6 +69,7 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
         if (blockPos != null) {
             BOOMBOX_UI_OPEN.put(playerRef.getUuid(), true);
         }
+        OPEN_LIBRARY_PAGES.put(playerRef.getUuid(), getLibraryOwnerId(store));
 
         // Populate Now Playing
         PlaybackSession session = resolveSession();
@@ -344,10 +351,10 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
 
                 if (session != null) {
                     session.setVolume(volDb);
-                    // Replace SoundEvent configs for all chunks with new volume
+                    // Rebinds the upcoming chunks; rapid clicks are coalesced
                     var mediaManager = MediaRadioPlugin.getInstance().getMediaManager();
                     if (session.getTrackId() != null) {
-                        mediaManager.updateTrackVolume(session.getTrackId(), session.getTotalChunks(), volDb);
+                        mediaManager.updateTrackVolume(session.getTrackId(), volDb);
                     }
                 }
                 if (blockPos != null && playbackManager != null) {
@@ -377,10 +384,10 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
                     float volDb = VolumeUtil.percentToEventDb(nextClamped);
                     if (session != null) {
                         session.setVolume(volDb);
-                        // Replace SoundEvent configs for all chunks with new volume
+                        // Rebinds the upcoming chunks; rapid edits are coalesced
                         var mediaManager = MediaRadioPlugin.getInstance().getMediaManager();
                         if (session.getTrackId() != null) {
-                            mediaManager.updateTrackVolume(session.getTrackId(), session.getTotalChunks(), volDb);
+                            mediaManager.updateTrackVolume(session.getTrackId(), volDb);
                         }
                     }
                     var playbackManager = MediaRadioPlugin.getInstance().getPlaybackManager();
@@ -409,6 +416,10 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
             final String finalUrl = mediaManager != null ? mediaManager.normalizeUrl(url) : url;
             data.url = null;
             data.directUrl = null;
+            if (mediaManager != null && mediaManager.isPlaylistUrl(finalUrl)) {
+                importPlaylist(ref, store, player, mediaManager, finalUrl);
+                return;
+            }
             var library = MediaRadioPlugin.getInstance().getMediaLibrary();
             if (library != null) {
                 library.upsertSongStatus(getLibraryOwnerId(store), finalUrl, "Downloading...", null, null, null,
@@ -418,7 +429,11 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
             }
             player.sendMessage(Message.translation("Requesting media..."));
 
-            MediaRadioPlugin.getInstance().getMediaManager().requestMedia(finalUrl).thenAccept(mediaInfo -> {
+            String requesterId = playerRef.getUuid().toString();
+            String targetId = getLibraryOwnerId(store);
+            MediaRadioPlugin.getInstance().getMediaManager().requestMedia(finalUrl, requesterId, targetId,
+                    position -> showQueuePosition(ref, store, finalUrl, position, "Downloading..."))
+                    .thenAccept(mediaInfo -> {
                 store.getExternalData().getWorld().execute(() -> {
                     if (library != null) {
                         library.upsertSongStatus(
@@ -436,7 +451,9 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
                     if (blockPos != null) {
                         MediaRadioPlugin.getInstance().getMediaManager()
                                 .playSoundAtBlock(mediaInfo, blockPos,
-                                        MediaRadioPlugin.getInstance().getConfig().getChunkDurationMs(), store)
+                                        MediaRadioPlugin.getInstance().getConfig().getChunkDurationMs(), store,
+                                        requesterId, targetId, position -> showQueuePosition(ref, store,
+                                                mediaInfo.url, position, "Preparing..."))
                                 .thenRun(() -> store.getExternalData().getWorld().execute(() -> {
                                     if (library != null) {
                                         library.upsertSongStatus(
@@ -454,6 +471,10 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
                                 }))
                                 .exceptionally(ex -> {
                                     store.getExternalData().getWorld().execute(() -> {
+                                        if (isCancellation(ex)) {
+                                            markCancelled(store, mediaInfo.url);
+                                            return;
+                                        }
                                         String reason = extractFailureReason(ex);
                                         sendChatAndClose(ref, store,
                                                 reason.isEmpty()
@@ -476,7 +497,8 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
                                 });
                     } else {
                         MediaRadioPlugin.getInstance().getMediaManager()
-                                .playSound(mediaInfo, playerRef, store)
+                                .playSound(mediaInfo, playerRef, store, position -> showQueuePosition(ref, store,
+                                        mediaInfo.url, position, "Preparing..."))
                                 .thenRun(() -> store.getExternalData().getWorld().execute(() -> {
                                     if (library != null) {
                                         library.upsertSongStatus(
@@ -494,6 +516,10 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
                                 }))
                                 .exceptionally(ex -> {
                                     store.getExternalData().getWorld().execute(() -> {
+                                        if (isCancellation(ex)) {
+                                            markCancelled(store, mediaInfo.url);
+                                            return;
+                                        }
                                         String reason = extractFailureReason(ex);
                                         sendChatAndClose(ref, store,
                                                 reason.isEmpty()
@@ -518,6 +544,10 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
                 });
             }).exceptionally(e -> {
                 store.getExternalData().getWorld().execute(() -> {
+                    if (isCancellation(e)) {
+                        markCancelled(store, finalUrl);
+                        return;
+                    }
                     String reason = extractFailureReason(e);
                     sendChatAndClose(ref, store,
                             reason.isEmpty()
@@ -568,6 +598,7 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
     public void onDismiss(@Nonnull Ref<EntityStore> ref, @Nonnull Store<EntityStore> store) {
         stopTimeUpdater();
         BOOMBOX_UI_OPEN.remove(playerRef.getUuid());
+        OPEN_LIBRARY_PAGES.remove(playerRef.getUuid(), getLibraryOwnerId(store));
     }
 
     private String formatTime(long ms) {
@@ -768,6 +799,26 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
         return Message.translation(key);
     }
 
+    /**
+     * Whether a request failed because it was cancelled, which happens when the player
+     * moved on to another track; there is nothing to report then.
+     */
+    private boolean isCancellation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() != cause ? cause.getCause() : null) {
+            if (cause instanceof java.util.concurrent.CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markCancelled(Store<EntityStore> store, String url) {
+        var library = MediaRadioPlugin.getInstance().getMediaLibrary();
+        if (library != null) {
+            library.upsertSongStatus(getLibraryOwnerId(store), url, "Cancelled", null, null, null, 0, null, null);
+        }
+    }
+
     private String extractFailureReason(Throwable error) {
         if (error == null) {
             return "";
@@ -807,6 +858,10 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
         if (blockPos != null) {
             return;
         }
+        // Closed meanwhile, or the player moved on to another page
+        if (!getLibraryOwnerId(store).equals(OPEN_LIBRARY_PAGES.get(playerRef.getUuid()))) {
+            return;
+        }
         if (player != null) {
             player.getPageManager().openCustomPage(ref, store, new RadioConfigPage(playerRef, blockPos));
         }
@@ -822,6 +877,63 @@ public class RadioConfigPage extends InteractiveCustomUIPage<RadioConfigPage.Rad
         player.getPageManager().openCustomPage(ref, store, new RadioConfigPage(playerRef, blockPos));
     }
 
+    /**
+     * Shows a waiting request's place in line as its library status, or
+     * {@code startedStatus} once it runs, so nobody has to click again to see it moving.
+     */
+    private void showQueuePosition(Ref<EntityStore> ref, Store<EntityStore> store, String url, int position,
+            String startedStatus) {
+        store.getExternalData().getWorld().execute(() -> {
+            var library = MediaRadioPlugin.getInstance().getMediaLibrary();
+            if (library == null) {
+                return;
+            }
+            if (position > 0) {
+                library.setTransientStatus(getLibraryOwnerId(store), url, "Queued (#" + position + ")");
+            } else {
+                library.upsertSongStatus(getLibraryOwnerId(store), url, startedStatus, null, null, null, 0, null, null);
+            }
+            scheduleRefresh(ref, store);
+        });
+    }
+
+    private void importPlaylist(Ref<EntityStore> ref, Store<EntityStore> store, Player player,
+            MediaManager mediaManager, String playlistUrl) {
+        player.sendMessage(Message.translation("Importing playlist..."));
+        mediaManager.importPlaylist(getLibraryOwnerId(store), playlistUrl,
+                update -> store.getExternalData().getWorld().execute(() -> {
+                    update.run();
+                    scheduleRefresh(ref, store);
+                })).thenAccept(count -> store.getExternalData().getWorld().execute(
+                        () -> playerRef.sendMessage(Message.raw("Importing " + count + " songs from the playlist."))))
+                .exceptionally(e -> {
+                    store.getExternalData().getWorld().execute(() -> {
+                        String reason = extractFailureReason(e);
+                        sendChatAndClose(ref, store,
+                                reason.isEmpty()
+                                        ? "Failed to import playlist."
+                                        : "Failed to import playlist: " + reason);
+                    });
+                    return null;
+                });
+    }
+
+    /**
+     * Refreshes the page shortly after a background library update, once for all updates
+     * that arrive meanwhile, and only if the player still has this library's page open.
+     */
+    private void scheduleRefresh(Ref<EntityStore> ref, Store<EntityStore> store) {
+        UUID playerId = playerRef.getUuid();
+        PENDING_REFRESHES.computeIfAbsent(playerId, key -> HytaleServer.SCHEDULED_EXECUTOR.schedule(
+                () -> store.getExternalData().getWorld().execute(() -> {
+                    PENDING_REFRESHES.remove(playerId);
+                    if (!ref.isValid() || !getLibraryOwnerId(store).equals(OPEN_LIBRARY_PAGES.get(playerId))) {
+                        return;
+                    }
+                    refreshUiAfterAction(ref, store, store.getComponent(ref, Player.getComponentType()));
+                }), REFRESH_DEBOUNCE_MS, TimeUnit.MILLISECONDS));
+    }
+
     private void refreshUiAfterAction(Ref<EntityStore> ref, Store<EntityStore> store, Player player) {
         if (blockPos != null) {
             refreshBoomboxIfOpen(ref, store, player);